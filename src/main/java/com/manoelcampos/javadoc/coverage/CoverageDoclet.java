@@ -15,9 +15,22 @@
  */
 package com.manoelcampos.javadoc.coverage;
 
+import com.manoelcampos.javadoc.coverage.exporter.AsyncReportWriter;
+import com.manoelcampos.javadoc.coverage.exporter.CheckstyleWriter;
 import com.manoelcampos.javadoc.coverage.exporter.ConsoleExporter;
 import com.manoelcampos.javadoc.coverage.exporter.DataExporter;
-import com.manoelcampos.javadoc.coverage.exporter.HtmlExporter;
+import com.manoelcampos.javadoc.coverage.exporter.DataExporterProvider;
+import com.manoelcampos.javadoc.coverage.exporter.MarkdownExporter;
+import com.manoelcampos.javadoc.coverage.exporter.ReplaceIfChangedOutputStream;
+import com.manoelcampos.javadoc.coverage.history.CoverageHistory;
+import com.manoelcampos.javadoc.coverage.server.CoverageServer;
+import com.manoelcampos.javadoc.coverage.metrics.OpenMetricsWriter;
+import com.manoelcampos.javadoc.coverage.metrics.RunMetrics;
+import com.manoelcampos.javadoc.coverage.stats.CoverageRanking;
+import com.manoelcampos.javadoc.coverage.stats.ElementFilter;
+import com.manoelcampos.javadoc.coverage.stats.JavaDocsStats;
+import com.manoelcampos.javadoc.coverage.stats.ScoringModel;
+import com.sun.javadoc.ClassDoc;
 import com.sun.javadoc.DocErrorReporter;
 import com.sun.javadoc.Doclet;
 import com.sun.javadoc.LanguageVersion;
@@ -25,6 +38,27 @@ import com.sun.javadoc.RootDoc;
 import com.sun.tools.doclets.standard.Standard;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.stream.Collectors.toList;
 
 /**
  * A {@link Doclet} that computes coverage of JavaDoc documentation.
@@ -50,12 +84,281 @@ public class CoverageDoclet {
     public static final String OUTPUT_NAME_OPTION[] = {"-outputName", "-o"};
 
     /**
-     * The {@link DataExporter} object to export the coverage report to a file
-     * in a specific format.
+     * A command line parameter to define the formats of the coverage report, separated by commas,
+     * which must be one of the {@link #REPORT_FORMATS} or a format added by a {@link DataExporterProvider}.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     */
+    public static final String FORMAT_OPTION[] = {"-format", "-f"};
+
+    /**
+     * The formats built into the Doclet for the {@link #FORMAT_OPTION}, where the first one is the default format.
+     */
+    public static final String REPORT_FORMATS[] = {"html", "csv", "tsv", "console", "markdown"};
+
+    /**
+     * A command line parameter to define the maximum number of rows in each file of a CSV/TSV report.
+     * If the report has more rows, it's split into multiple files.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     */
+    public static final String CHUNK_ROWS_OPTION[] = {"-chunkRows", "-cr"};
+
+    /**
+     * A command line parameter to define the maximum size in bytes of the Markdown report,
+     * such as the maximum size of a pull request comment.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see MarkdownExporter
+     */
+    public static final String MAX_BYTES_OPTION[] = {"-maxBytes", "-mb"};
+
+    /**
+     * A command line parameter to write the report files in background threads,
+     * defining the maximum number of chunks of text waiting to be written.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see AsyncReportWriter
+     */
+    public static final String WRITE_QUEUE_OPTION[] = {"-writeQueue", "-wq"};
+
+    /**
+     * A command line parameter to define the number of worst documented classes, methods and packages
+     * to be included into the coverage report.
+     * If not given, no ranking is included.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see CoverageRanking
+     */
+    public static final String TOP_OPTION[] = {"-top", "-t"};
+
+    /**
+     * A command line parameter to define the criteria to rank the worst documented elements,
+     * which may be "undocumented" (the default) to rank by the number of undocumented members or
+     * "percent" to rank by the lowest documented percentage.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see #TOP_OPTION
+     * @see CoverageRanking.Criteria
+     */
+    public static final String RANK_BY_OPTION[] = {"-rankBy", "-rb"};
+
+    /**
+     * A command line flag to keep the Doclet running after the coverage report is generated,
+     * watching the source directories and updating the report as Java files change.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see SourceWatcher
+     */
+    public static final String WATCH_OPTION[] = {"-watch", "-w"};
+
+    /**
+     * A command line parameter to define a list of glob patterns, separated by colons,
+     * for the packages to be included into the coverage report (such as "com.company.*").
+     * If not given, all packages are included.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see ElementFilter
+     */
+    public static final String INCLUDE_PACKAGES_OPTION[] = {"-includePackages", "-ip"};
+
+    /**
+     * A command line parameter to define a list of glob patterns, separated by colons,
+     * for the packages to be excluded from the coverage report.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see ElementFilter
+     */
+    public static final String EXCLUDE_PACKAGES_OPTION[] = {"-excludePackages", "-xp"};
+
+    /**
+     * A command line parameter to define the minimum visibility of the elements included into the coverage report,
+     * which must be one of the {@link ElementFilter.Visibility} values: public, protected, package or private (the default).
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     */
+    public static final String MIN_VISIBILITY_OPTION[] = {"-minVisibility", "-mv"};
+
+    /**
+     * A command line parameter to define a list of annotation names, separated by colons,
+     * to exclude the elements annotated with them from the coverage report (such as "Generated").
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see ElementFilter
+     */
+    public static final String EXCLUDE_ANNOTATIONS_OPTION[] = {"-excludeAnnotations", "-xa"};
+
+    /**
+     * A command line parameter to define a list of glob patterns, separated by colons,
+     * for the paths of source files to be excluded from the coverage report (such as "**&#47;generated/**").
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see ElementFilter
+     */
+    public static final String EXCLUDE_SOURCES_OPTION[] = {"-excludeSources", "-xs"};
+
+    /**
+     * A command line parameter to define how the project coverage percentage is averaged,
+     * which must be one of the {@link ScoringModel.Averaging} values: legacy (the default), micro or macro.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see ScoringModel
+     */
+    public static final String AVERAGING_OPTION[] = {"-averaging", "-av"};
+
+    /**
+     * A command line parameter to define the weight of each kind of element in the project coverage percentage,
+     * in the format "kind=weight", separated by commas (such as "class=2,param=0.5").
+     * Weights just apply to micro and macro averaging.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see #AVERAGING_OPTION
+     * @see com.manoelcampos.javadoc.coverage.stats.ElementKind
+     */
+    public static final String WEIGHTS_OPTION[] = {"-weights", "-wg"};
+
+    /**
+     * A command line parameter to define the path of a history file where the coverage of each run is appended,
+     * enabling a trend chart into the HTML report.
+     * Relative paths are resolved from the current directory, so that the history isn't
+     * removed along with the output directory.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see CoverageHistory
+     */
+    public static final String HISTORY_OPTION[] = {"-history", "-hs"};
+
+    /**
+     * A command line parameter to define the id of the commit being analysed,
+     * which is stored into the history file.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see #HISTORY_OPTION
+     */
+    public static final String COMMIT_OPTION[] = {"-commit", "-ci"};
+
+    /**
+     * A command line parameter to define a port to serve the coverage report from a local HTTP server,
+     * after the report is generated. Pages are rendered on demand as they are viewed.
+     * The doclet runs until it's stopped.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see CoverageServer
+     */
+    public static final String SERVE_OPTION[] = {"-serve", "-sv"};
+
+    /**
+     * A command line flag to write each undocumented element, such as a missing {@code @param} tag,
+     * together with its source file and line, to the {@link #CHECKSTYLE_FILE} in the Checkstyle XML format.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see CheckstyleWriter
+     */
+    public static final String CHECKSTYLE_OPTION[] = {"-checkstyle", "-cs"};
+
+    /**
+     * The name of the file written into the output directory when the {@link #CHECKSTYLE_OPTION} is given.
      */
-    private final DataExporter exporter;
+    public static final String CHECKSTYLE_FILE = "javadoc-coverage-checkstyle.xml";
+
+    /**
+     * A command line flag to write the {@link RunMetrics} of the Doclet, such as elapsed times,
+     * throughput and peak heap usage, to the {@link #RUN_METRICS_FILE}.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     */
+    public static final String RUN_METRICS_OPTION[] = {"-runMetrics", "-rm"};
+
+    /**
+     * The name of the file written into the output directory when the {@link #RUN_METRICS_OPTION} is given.
+     */
+    public static final String RUN_METRICS_FILE = "javadoc-coverage-metrics.json";
+
+    /**
+     * A command line parameter to write the JavaDoc coverage as metrics in the OpenMetrics text format
+     * to a given file, such as one read by the Prometheus node exporter textfile collector.
+     * The file is written again after each update when the {@link #WATCH_OPTION} is given.
+     * The first value is the long version of the parameter name and the second
+     * is the short one.
+     *
+     * @see OpenMetricsWriter
+     */
+    public static final String OPEN_METRICS_OPTION[] = {"-openMetrics", "-om"};
+
+    /**
+     * The {@link DataExporter} objects to export the coverage report to a file
+     * in each format given by the {@link #FORMAT_OPTION}.
+     */
+    private final List<DataExporter> exporters;
+
+    /**
+     * Indicates if two or more of the formats given by the {@link #FORMAT_OPTION} are written to files.
+     *
+     * @see #isMultipleReportFiles()
+     */
+    private boolean multipleReportFiles;
+
+    /**
+     * The {@link DataExporterProvider}s found into the doclet path, indexed by each format they support.
+     *
+     * @see #getExporterProviders()
+     */
+    private static Map<String, DataExporterProvider> exporterProviders;
+
+    /**
+     * The size in chars of the buffer of each report writer.
+     */
+    private static final int WRITER_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The maximum number of chunks waiting to be written by each {@link AsyncReportWriter},
+     * or 0 if the {@link #WRITE_QUEUE_OPTION} wasn't given and reports are written synchronously.
+     */
+    private final int writeQueueDepth;
+
+    /**
+     * The total time the exporters waited for a full {@link AsyncReportWriter} queue, in nanoseconds.
+     */
+    private final LongAdder writeQueueFullNanos = new LongAdder();
     private final RootDoc rootDoc;
 
+    /**
+     * The JavaDoc coverage statistics computed for the {@link #rootDoc}
+     * and shared with the {@link #exporters}.
+     */
+    private final JavaDocsStats stats;
+
+    /**
+     * The history where the coverage of each run is appended
+     * or null if the {@link #HISTORY_OPTION} wasn't given.
+     */
+    private final CoverageHistory history;
+
+    /**
+     * The server for the coverage report or null if the {@link #SERVE_OPTION} wasn't given.
+     */
+    private CoverageServer server;
+
+    /**
+     * The performance metrics of the run or null if the {@link #RUN_METRICS_OPTION} wasn't given.
+     */
+    private final RunMetrics runMetrics;
+
     /**
      * Starts the actual parsing or JavaDoc documentation and generation of the coverage report.
      * This is the entry point for the JavaDoc tool to start the Doclet.
@@ -75,7 +378,194 @@ public class CoverageDoclet {
      */
     public CoverageDoclet(final RootDoc rootDoc) {
         this.rootDoc = rootDoc;
-        this.exporter = new HtmlExporter(this);
+        this.runMetrics = isOptionEnabled(RUN_METRICS_OPTION) ? new RunMetrics() : null;
+        final long analysisStart = System.nanoTime();
+        this.stats = createStats();
+        this.stats.setScoringModel(createScoringModel());
+        if (runMetrics != null) {
+            runMetrics.setAnalysisTime(System.nanoTime() - analysisStart);
+        }
+        final String[] historyOption = getOptionValues(HISTORY_OPTION);
+        this.history = historyOption.length > 1 ? new CoverageHistory(Paths.get(historyOption[1])) : null;
+        final String[] writeQueueOption = getOptionValues(WRITE_QUEUE_OPTION);
+        this.writeQueueDepth = writeQueueOption.length > 1 ? Integer.parseInt(writeQueueOption[1]) : 0;
+        this.exporters = createExporters();
+    }
+
+    /**
+     * Analyses the elements received by the JavaDoc tool, according to the command line parameters.
+     * If the {@link #CHECKSTYLE_OPTION} is given, undocumented elements are streamed
+     * to the {@link #CHECKSTYLE_FILE} while they are analysed.
+     *
+     * @return the computed JavaDoc coverage statistics
+     */
+    private JavaDocsStats createStats() {
+        if (!isOptionEnabled(CHECKSTYLE_OPTION)) {
+            return new JavaDocsStats(rootDoc, createRanking(), createFilter(), null);
+        }
+
+        try (CheckstyleWriter checkstyleWriter = new CheckstyleWriter(getOutputFile(CHECKSTYLE_FILE))) {
+            return new JavaDocsStats(rootDoc, createRanking(), createFilter(), checkstyleWriter);
+        }
+    }
+
+    /**
+     * Creates the ranking of the worst documented elements, according to the {@link #TOP_OPTION}.
+     *
+     * @return the empty ranking or null if elements must not be ranked
+     */
+    private CoverageRanking createRanking() {
+        final String[] topOption = getOptionValues(TOP_OPTION);
+        if (topOption.length < 2) {
+            return null;
+        }
+
+        final String[] rankByOption = getOptionValues(RANK_BY_OPTION);
+        final CoverageRanking.Criteria criteria = rankByOption.length > 1 ?
+                CoverageRanking.Criteria.valueOf(rankByOption[1].toUpperCase()) :
+                CoverageRanking.Criteria.UNDOCUMENTED;
+        return new CoverageRanking(Integer.parseInt(topOption[1]), criteria);
+    }
+
+    /**
+     * Creates the model to compute the project coverage percentage,
+     * according to the {@link #AVERAGING_OPTION} and {@link #WEIGHTS_OPTION}.
+     *
+     * @return the scoring model
+     */
+    private ScoringModel createScoringModel() {
+        final String[] averagingOption = getOptionValues(AVERAGING_OPTION);
+        final String[] weightsOption = getOptionValues(WEIGHTS_OPTION);
+        if (averagingOption.length < 2 && weightsOption.length < 2) {
+            return ScoringModel.DEFAULT;
+        }
+
+        final ScoringModel.Averaging averaging = averagingOption.length > 1 ?
+                ScoringModel.Averaging.valueOf(averagingOption[1].toUpperCase()) :
+                ScoringModel.Averaging.MICRO;
+        return new ScoringModel(averaging, weightsOption.length > 1 ? ScoringModel.parseWeights(weightsOption[1]) : Collections.emptyMap());
+    }
+
+    /**
+     * Creates the filter to select the elements to be included into the coverage report,
+     * according to the filtering command line parameters.
+     *
+     * @return the filter for the elements to be analysed
+     */
+    private ElementFilter createFilter() {
+        final String[] visibilityOption = getOptionValues(MIN_VISIBILITY_OPTION);
+        final ElementFilter.Visibility minVisibility = visibilityOption.length > 1 ?
+                ElementFilter.Visibility.valueOf(visibilityOption[1].toUpperCase()) :
+                ElementFilter.Visibility.PRIVATE;
+
+        final List<String> includedPackages = getOptionList(INCLUDE_PACKAGES_OPTION);
+        final List<String> excludedPackages = getOptionList(EXCLUDE_PACKAGES_OPTION);
+        final List<String> excludedAnnotations = getOptionList(EXCLUDE_ANNOTATIONS_OPTION);
+        final List<String> excludedSources = getOptionList(EXCLUDE_SOURCES_OPTION);
+        if (includedPackages.isEmpty() && excludedPackages.isEmpty() && excludedAnnotations.isEmpty() &&
+            excludedSources.isEmpty() && minVisibility == ElementFilter.Visibility.PRIVATE)
+        {
+            return ElementFilter.ALL;
+        }
+
+        return new ElementFilter(includedPackages, excludedPackages, minVisibility, excludedAnnotations, excludedSources);
+    }
+
+    /**
+     * Gets the list of values, separated by colons, given to a command line parameter.
+     *
+     * @param optionNames an array containing the valid names for the command line parameter
+     * @return the list of values or an empty list if the parameter wasn't given
+     */
+    private List<String> getOptionList(final String[] optionNames) {
+        final String[] option = getOptionValues(optionNames);
+        if (option.length < 2) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(option[1].split(":")).map(String::trim).filter(Utils::isNotStringEmpty).collect(toList());
+    }
+
+    /**
+     * Creates the {@link DataExporter}s for the report formats given by the {@link #FORMAT_OPTION}.
+     *
+     * @return the List of exporters, one for each format
+     */
+    private List<DataExporter> createExporters() {
+        final String[] formatOption = getOptionValues(FORMAT_OPTION);
+        final List<String> formats = formatOption.length > 1 ? parseFormats(formatOption[1]) : Collections.singletonList(REPORT_FORMATS[0]);
+        List<DataExporter> list = newExporters(formats);
+        /*Exporters name their files when created, so they are created again once it's known each format needs its own file.*/
+        if (list.stream().filter(exporter -> !exporter.getReportFileName().isEmpty()).count() > 1) {
+            multipleReportFiles = true;
+            list = newExporters(formats);
+        }
+
+        final Set<String> fileNames = new HashSet<>();
+        for (final DataExporter exporter : list) {
+            /*Exporters are built concurrently, so they would overwrite each other's file.*/
+            if (!exporter.getReportFileName().isEmpty() && !fileNames.add(exporter.getReportFileName())) {
+                throw new IllegalStateException("Multiple report formats would be written to the same file " + exporter.getReportFileName());
+            }
+        }
+
+        return list;
+    }
+
+    private List<DataExporter> newExporters(final List<String> formats) {
+        final List<DataExporter> list = new ArrayList<>(formats.size());
+        for (final String format : formats) {
+            list.add(getExporterProviders().get(format).create(this, format));
+        }
+
+        return list;
+    }
+
+    /**
+     * Checks if two or more of the formats given by the {@link #FORMAT_OPTION} are written to files,
+     * so that the extension of each format must be appended to the {@link #OUTPUT_NAME_OPTION}
+     * to give each report its own file.
+     *
+     * @return true if multiple report files are written, false otherwise
+     */
+    public boolean isMultipleReportFiles() {
+        return multipleReportFiles;
+    }
+
+    /**
+     * Parses the value of the {@link #FORMAT_OPTION}.
+     *
+     * @param value a list of report formats separated by commas
+     * @return a List of distinct format names in lower case
+     */
+    private static List<String> parseFormats(final String value) {
+        return Arrays.stream(value.split(","))
+                     .map(format -> format.trim().toLowerCase())
+                     .filter(Utils::isNotStringEmpty)
+                     .distinct()
+                     .collect(toList());
+    }
+
+    /**
+     * Gets the {@link DataExporterProvider}s registered into the doclet path, which are loaded just once.
+     * If multiple providers support the same format, the first one found is used.
+     *
+     * @return a Map where each key is a report format and each value is the provider for that format
+     */
+    private static synchronized Map<String, DataExporterProvider> getExporterProviders() {
+        if (exporterProviders != null) {
+            return exporterProviders;
+        }
+
+        final Map<String, DataExporterProvider> providers = new LinkedHashMap<>();
+        for (final DataExporterProvider provider : ServiceLoader.load(DataExporterProvider.class, CoverageDoclet.class.getClassLoader())) {
+            for (final String format : provider.getFormats()) {
+                providers.putIfAbsent(format.toLowerCase(), provider);
+            }
+        }
+
+        exporterProviders = Collections.unmodifiableMap(providers);
+        return exporterProviders;
     }
 
     /**
@@ -84,7 +574,37 @@ public class CoverageDoclet {
      * @return true if it's a valid custom parameter, false otherwise
      */
     private static boolean isCustomParameter(final String paramName) {
-        return isParameter(paramName, OUTPUT_NAME_OPTION);
+        return isParameter(paramName, OUTPUT_NAME_OPTION) ||
+               isParameter(paramName, FORMAT_OPTION) ||
+               isParameter(paramName, CHUNK_ROWS_OPTION) ||
+               isParameter(paramName, WRITE_QUEUE_OPTION) ||
+               isParameter(paramName, MAX_BYTES_OPTION) ||
+               isParameter(paramName, TOP_OPTION) ||
+               isParameter(paramName, RANK_BY_OPTION) ||
+               isParameter(paramName, INCLUDE_PACKAGES_OPTION) ||
+               isParameter(paramName, EXCLUDE_PACKAGES_OPTION) ||
+               isParameter(paramName, MIN_VISIBILITY_OPTION) ||
+               isParameter(paramName, EXCLUDE_ANNOTATIONS_OPTION) ||
+               isParameter(paramName, EXCLUDE_SOURCES_OPTION) ||
+               isParameter(paramName, AVERAGING_OPTION) ||
+               isParameter(paramName, WEIGHTS_OPTION) ||
+               isParameter(paramName, HISTORY_OPTION) ||
+               isParameter(paramName, COMMIT_OPTION) ||
+               isParameter(paramName, SERVE_OPTION) ||
+               isParameter(paramName, OPEN_METRICS_OPTION) ||
+               isCustomFlag(paramName);
+    }
+
+    /**
+     * Checks if a given parameter is a custom parameter accepted by this doclet
+     * which doesn't require any argument.
+     * @param paramName the name of the parameter to check
+     * @return true if it's a valid custom flag, false otherwise
+     */
+    private static boolean isCustomFlag(final String paramName) {
+        return isParameter(paramName, WATCH_OPTION) ||
+               isParameter(paramName, CHECKSTYLE_OPTION) ||
+               isParameter(paramName, RUN_METRICS_OPTION);
     }
 
     /**
@@ -113,6 +633,61 @@ public class CoverageDoclet {
      * @see Doclet#validOptions(String[][], DocErrorReporter)
      */
     public static boolean validOptions(final String[][] options, final DocErrorReporter errorReporter) {
+        for (final String[] opt : options) {
+            if (isParameter(opt[0], FORMAT_OPTION)) {
+                final List<String> formats = parseFormats(opt[1]);
+                final Set<String> validFormats = getExporterProviders().keySet();
+                for (final String format : formats) {
+                    if (!validFormats.contains(format)) {
+                        errorReporter.printError("Invalid report format '" + format + "'. Valid ones are: " + String.join(", ", validFormats));
+                        return false;
+                    }
+                }
+
+                if (formats.isEmpty()) {
+                    errorReporter.printError("No report format given to " + opt[0] + ".");
+                    return false;
+                }
+            }
+
+            if (isParameter(opt[0], RANK_BY_OPTION) && !isRankingCriteria(opt[1])) {
+                errorReporter.printError("Invalid ranking criteria '" + opt[1] + "'. Valid ones are: undocumented, percent");
+                return false;
+            }
+
+            if (isParameter(opt[0], MIN_VISIBILITY_OPTION) && !isVisibility(opt[1])) {
+                errorReporter.printError("Invalid visibility '" + opt[1] + "'. Valid ones are: public, protected, package, private");
+                return false;
+            }
+
+            if (isParameter(opt[0], AVERAGING_OPTION) && !isAveraging(opt[1])) {
+                errorReporter.printError("Invalid averaging '" + opt[1] + "'. Valid ones are: legacy, micro, macro");
+                return false;
+            }
+
+            if (isParameter(opt[0], WEIGHTS_OPTION)) {
+                try {
+                    ScoringModel.parseWeights(opt[1]);
+                } catch (IllegalArgumentException e) {
+                    errorReporter.printError(e.getMessage());
+                    return false;
+                }
+            }
+
+            if (isParameter(opt[0], SERVE_OPTION) && !(isPositiveNumber(opt[1]) && Long.parseLong(opt[1]) <= 65535)) {
+                errorReporter.printError("Invalid port '" + opt[1] + "' given to " + opt[0] + ". It must be between 1 and 65535.");
+                return false;
+            }
+
+            if ((isParameter(opt[0], CHUNK_ROWS_OPTION) || isParameter(opt[0], TOP_OPTION) ||
+                 isParameter(opt[0], WRITE_QUEUE_OPTION) || isParameter(opt[0], MAX_BYTES_OPTION)) &&
+                !isPositiveNumber(opt[1]))
+            {
+                errorReporter.printError("The value '" + opt[1] + "' given to " + opt[0] + " must be a positive integer.");
+                return false;
+            }
+        }
+
         for (final String[] opt : options) {
             if (isCustomParameter(opt[0])) {
                 return true;
@@ -122,6 +697,26 @@ public class CoverageDoclet {
         return Standard.validOptions(options, errorReporter);
     }
 
+    private static boolean isRankingCriteria(final String value) {
+        return Arrays.stream(CoverageRanking.Criteria.values()).anyMatch(criteria -> criteria.name().equalsIgnoreCase(value));
+    }
+
+    private static boolean isVisibility(final String value) {
+        return Arrays.stream(ElementFilter.Visibility.values()).anyMatch(visibility -> visibility.name().equalsIgnoreCase(value));
+    }
+
+    private static boolean isAveraging(final String value) {
+        return Arrays.stream(ScoringModel.Averaging.values()).anyMatch(averaging -> averaging.name().equalsIgnoreCase(value));
+    }
+
+    private static boolean isPositiveNumber(final String value) {
+        try {
+            return Long.parseLong(value) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     /**
      * Gets the number of arguments that a given command line option must contain.
      *
@@ -130,7 +725,12 @@ public class CoverageDoclet {
      * @see Doclet#optionLength(String)
      */
     public static int optionLength(final String option) {
-        /*The custom outputName parameter accepts one argument.
+        /*Custom flags don't accept any argument, so just the name of the param is counted.*/
+        if (isCustomFlag(option)) {
+            return 1;
+        }
+
+        /*The other custom parameters, such as outputName, accept one argument.
         * The name of the param counts as the one argument.*/
         if (isCustomParameter(option)) {
             return 2;
@@ -158,6 +758,17 @@ public class CoverageDoclet {
         return new String[]{};
     }
 
+    /**
+     * Checks if a given command line flag was passed to the javadoc tool.
+     *
+     * @param optionNames an array containing the valid names for the command line flag,
+     *                    including its long and short versions, for instance {@code {-watch, -w}}.
+     * @return true if the flag was given, false otherwise
+     */
+    public boolean isOptionEnabled(final String[] optionNames) {
+        return getOptionValues(optionNames).length > 0;
+    }
+
     /**
      * Gets the version of the Java Programming Language supported
      * by this doclet.
@@ -176,7 +787,215 @@ public class CoverageDoclet {
      * @return true if the {@link RootDoc} was rendered successfully, false otherwise
      */
     private boolean render() {
-        return exporter.build();
+        appendHistory();
+        final long exportStart = System.nanoTime();
+        if (!buildReports()) {
+            return false;
+        }
+
+        writeRunMetrics(System.nanoTime() - exportStart);
+        if (writeQueueDepth > 0) {
+            System.out.printf("Time waiting for a full write queue: %.1f ms%n", writeQueueFullNanos.sum() / 1_000_000.0);
+        }
+        writeOpenMetrics();
+
+        /*The console exporter already prints the ranking*/
+        if (stats.getRanking() != null && exporters.stream().noneMatch(ConsoleExporter.class::isInstance)) {
+            System.out.println();
+            ConsoleExporter.printRanking(new PrintWriter(System.out), stats.getRanking());
+        }
+
+        final String[] serveOption = getOptionValues(SERVE_OPTION);
+        if (serveOption.length > 1) {
+            startServer(Integer.parseInt(serveOption[1]));
+        }
+
+        if (isOptionEnabled(WATCH_OPTION)) {
+            new SourceWatcher(this).watch();
+        } else if (server != null) {
+            awaitServerStop();
+        }
+
+        return true;
+    }
+
+    private void startServer(final int port) {
+        try {
+            server = new CoverageServer(stats, port);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        server.start();
+    }
+
+    private void awaitServerStop() {
+        try {
+            server.awaitStop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the {@link #runMetrics} to the {@link #RUN_METRICS_FILE}, if enabled.
+     * The metrics are just written for the first time the report is built.
+     *
+     * @param exportNanos the time spent building the report, in nanoseconds
+     */
+    private void writeRunMetrics(final long exportNanos) {
+        if (runMetrics == null) {
+            return;
+        }
+
+        runMetrics.setExportTime(exportNanos);
+        runMetrics.setWriteQueueFullTime(writeQueueFullNanos.sum());
+        final File file = getOutputFile(RUN_METRICS_FILE);
+        try {
+            runMetrics.write(file, stats);
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        System.out.printf("Run metrics saved to %s%n", file.getAbsolutePath());
+    }
+
+    /**
+     * Writes the JavaDoc coverage metrics to the file given by the {@link #OPEN_METRICS_OPTION}, if any.
+     */
+    private void writeOpenMetrics() {
+        final String[] openMetricsOption = getOptionValues(OPEN_METRICS_OPTION);
+        if (openMetricsOption.length < 2) {
+            return;
+        }
+
+        final Path file = Paths.get(openMetricsOption[1]);
+        try {
+            OpenMetricsWriter.write(file, stats);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        System.out.printf("OpenMetrics saved to %s%n", file.toAbsolutePath());
+    }
+
+    /**
+     * Appends the coverage of the current run to the {@link #history}, if enabled.
+     */
+    private void appendHistory() {
+        if (history == null) {
+            return;
+        }
+
+        final String[] commitOption = getOptionValues(COMMIT_OPTION);
+        try {
+            history.append(System.currentTimeMillis(), commitOption.length > 1 ? commitOption[1] : "", stats);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the history where the coverage of each run is appended.
+     *
+     * @return the coverage history or null if the {@link #HISTORY_OPTION} wasn't given
+     */
+    public CoverageHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Builds the coverage report in each given format.
+     * Exporters which write to files are built concurrently, each one on its own thread and
+     * with its own writer, so that a slow report doesn't delay the others.
+     * Exporters which print to the standard output are built afterwards on the current thread,
+     * so that their output isn't interleaved with the messages of other exporters.
+     *
+     * @return true if all reports were built successfully, false otherwise
+     */
+    private boolean buildReports() {
+        if (exporters.size() == 1) {
+            return exporters.get(0).build();
+        }
+
+        final List<DataExporter> fileExporters =
+            exporters.stream().filter(exporter -> !exporter.getReportFileName().isEmpty()).collect(toList());
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, fileExporters.size()), runnable -> {
+            final Thread thread = new Thread(runnable, "javadoc-coverage-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>(fileExporters.size());
+            for (final DataExporter exporter : fileExporters) {
+                results.add(executor.submit(exporter::build));
+            }
+
+            boolean success = true;
+            for (final Future<Boolean> result : results) {
+                success &= result.get();
+            }
+
+            for (final DataExporter exporter : exporters) {
+                if (exporter.getReportFileName().isEmpty()) {
+                    success &= exporter.build();
+                }
+            }
+
+            return success;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Re-analyses a set of changed Java source files and rebuilds the coverage report,
+     * updating only the statistics of the classes declared into such files.
+     *
+     * @param changedFiles the Java source files which were created, modified or deleted
+     * @param sourcePath the directories where the JavaDoc tool will look for sources referenced by the changed files
+     * @return true if the coverage report was rebuilt successfully, false otherwise
+     */
+    boolean update(final Collection<Path> changedFiles, final Collection<Path> sourcePath) {
+        final List<Path> existingFiles = changedFiles.stream().filter(Files::exists).collect(toList());
+        if (existingFiles.isEmpty()) {
+            updateStats(changedFiles, new ClassDoc[0]);
+            return buildReports();
+        }
+
+        /*The report is built while the JavaDoc tool is still running for the changed files,
+        * since the elements it provides are lazily loaded.*/
+        return ReanalysisDoclet.run(existingFiles, sourcePath, changedRootDoc -> {
+            updateStats(changedFiles, changedRootDoc.classes());
+            return buildReports();
+        });
+    }
+
+    /**
+     * Updates the statistics after some Java files have changed,
+     * holding the statistics lock so that the {@link #server} doesn't render pages meanwhile.
+     *
+     * @param changedFiles the Java source files which were created, modified or deleted
+     * @param changedClasses the classes currently declared into the changed files
+     */
+    private void updateStats(final Collection<Path> changedFiles, final ClassDoc[] changedClasses) {
+        synchronized (stats) {
+            stats.update(changedFiles, changedClasses);
+            writeOpenMetrics();
+            if (server != null) {
+                server.invalidate();
+            }
+        }
     }
 
     /**
@@ -188,13 +1007,25 @@ public class CoverageDoclet {
     }
 
     /**
-     * Gets a {@link PrintWriter} used by the {@link #exporter} to write
-     * the coverage report to.
+     * Gets the JavaDoc coverage statistics computed for the Java files
+     * given to the JavaDoc tool.
+     *
+     * @return the project's JavaDoc coverage statistics
+     */
+    public JavaDocsStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Gets a buffered {@link PrintWriter} used by each one of the {@link #exporters} to write
+     * the coverage report to. Reports are always encoded in UTF-8, independently of the platform's default charset.
      *
-     * @param file the file to which the coverage report will be saved to
+     * @param out the stream of the file to which the coverage report will be saved to,
+     *            which replaces the existing report file just if the report changed
      */
-    public PrintWriter getWriter(final File file) throws FileNotFoundException {
-        return new PrintWriter(new OutputStreamWriter(new FileOutputStream(file)));
+    public PrintWriter getWriter(final ReplaceIfChangedOutputStream out) {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(runMetrics == null ? out : runMetrics.countBytes(out), StandardCharsets.UTF_8), WRITER_BUFFER_SIZE);
+        return new PrintWriter(writeQueueDepth > 0 ? new AsyncReportWriter(writer, writeQueueDepth, writeQueueFullNanos) : writer);
     }
 
     /**
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage;
+
+import com.sun.javadoc.Doclet;
+import com.sun.javadoc.LanguageVersion;
+import com.sun.javadoc.RootDoc;
+
+import javax.tools.DocumentationTool;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * A {@link Doclet} used to run the JavaDoc Tool again just over a set of changed Java files,
+ * so that only the classes declared into such files need to be analysed.
+ * The {@link RootDoc} parsed by the tool is given to a callback
+ * while the tool is still running.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see SourceWatcher
+ * @since 1.3.0
+ */
+public final class ReanalysisDoclet {
+    /**
+     * The callback which receives the {@link RootDoc} for the changed files
+     * during the current execution of the JavaDoc Tool.
+     */
+    private static Predicate<RootDoc> callback;
+
+    private static final String PACKAGE_INFO_FILE = "package-info.java";
+
+    /**
+     * A private constructor to avoid class instantiation.
+     */
+    private ReanalysisDoclet() {}
+
+    /**
+     * Gives the {@link RootDoc} for the changed files to the current callback.
+     * This is the entry point for the JavaDoc tool to start the Doclet.
+     *
+     * @param rootDoc root element which enables reading JavaDoc documentation for the changed files
+     * @return the value returned by the callback
+     * @see Doclet#start(RootDoc)
+     */
+    public static boolean start(final RootDoc rootDoc) {
+        return callback.test(rootDoc);
+    }
+
+    /**
+     * Gets the version of the Java Programming Language supported
+     * by this doclet.
+     *
+     * @return the Java language supported version
+     * @see Doclet#languageVersion()
+     */
+    public static LanguageVersion languageVersion() {
+        return CoverageDoclet.languageVersion();
+    }
+
+    /**
+     * Runs the JavaDoc Tool over a set of Java files.
+     *
+     * @param files the Java files to parse
+     * @param sourcePath the directories where the JavaDoc tool will look for sources referenced by the given files
+     * @param callback the callback to receive the {@link RootDoc} for the given files
+     *                 while the JavaDoc Tool is running
+     * @return true if the tool and the callback finished successfully, false otherwise
+     */
+    static synchronized boolean run(final Collection<Path> files, final Collection<Path> sourcePath, final Predicate<RootDoc> callback) {
+        final DocumentationTool tool = ToolProvider.getSystemDocumentationTool();
+        try (StandardJavaFileManager fileManager = tool.getStandardFileManager(null, null, null)) {
+            fileManager.setLocation(StandardLocation.SOURCE_PATH, sourcePath.stream().map(Path::toFile).collect(toList()));
+
+            ReanalysisDoclet.callback = callback;
+            return tool.getTask(
+                        null, fileManager, null, ReanalysisDoclet.class,
+                        Collections.singletonList("-quiet"), fileManager.getJavaFileObjectsFromFiles(getFilesToParse(files)))
+                       .call();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            ReanalysisDoclet.callback = null;
+        }
+    }
+
+    /**
+     * Gets the files to be parsed by the JavaDoc Tool, including the {@code package-info.java}
+     * files from the packages of the changed files, so that such packages don't lose their documentation.
+     *
+     * @param files the changed Java files
+     * @return the Set of files to parse
+     */
+    private static Set<File> getFilesToParse(final Collection<Path> files) {
+        final Set<File> filesToParse = files.stream().map(Path::toFile).collect(toSet());
+        for (final Path file : files) {
+            final Path packageInfo = file.resolveSibling(PACKAGE_INFO_FILE);
+            if (Files.exists(packageInfo)) {
+                filesToParse.add(packageInfo.toFile());
+            }
+        }
+
+        return filesToParse;
+    }
+}
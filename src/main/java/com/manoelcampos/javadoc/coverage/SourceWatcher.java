@@ -0,0 +1,254 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage;
+
+import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.SourcePosition;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Watches the source directories of the Java files given to the JavaDoc tool
+ * and updates the JavaDoc coverage report when Java files are created, modified or deleted.
+ * Only the classes declared into the changed files are analysed again.
+ *
+ * <p>File system events are collected by the thread calling {@link #watch()},
+ * while changed files are analysed by a single background thread.
+ * This way, events keep being consumed while a (possibly slow) analysis is running,
+ * instead of overflowing the {@link WatchService} queue and being lost.
+ * Changes detected during an analysis are merged and analysed together
+ * as soon as the running analysis finishes.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see CoverageDoclet#WATCH_OPTION
+ * @since 1.3.0
+ */
+final class SourceWatcher {
+    /**
+     * Time (in milliseconds) to wait for further changes after a file change is detected,
+     * so that a burst of changes (such as saving several files at once) updates the report just once.
+     */
+    private static final long SETTLE_TIME_MS = 300;
+
+    private final CoverageDoclet doclet;
+
+    /**
+     * The root directories containing the Java files given to the JavaDoc tool,
+     * which are the directories where the packages start.
+     */
+    private final Set<Path> sourceRoots;
+
+    /**
+     * Maps each {@link WatchKey} to the directory it was registered for.
+     */
+    private final Map<WatchKey, Path> watchedDirs;
+
+    /**
+     * Runs the analysis of changed files, one batch at a time.
+     */
+    private final ExecutorService analysisExecutor;
+
+    /**
+     * Changed files waiting to be analysed.
+     * Access must be synchronized on the SourceWatcher instance.
+     */
+    private final Set<Path> pendingFiles;
+
+    /**
+     * Indicates if there is an analysis scheduled or running into the {@link #analysisExecutor}.
+     * Access must be synchronized on the SourceWatcher instance.
+     */
+    private boolean analysisScheduled;
+
+    /**
+     * Instantiates a SourceWatcher for the Java files parsed by a given {@link CoverageDoclet}.
+     *
+     * @param doclet the {@link CoverageDoclet} to update the coverage report when files change
+     */
+    SourceWatcher(final CoverageDoclet doclet) {
+        this.doclet = doclet;
+        this.sourceRoots = findSourceRoots(doclet.getRootDoc().classes());
+        this.watchedDirs = new HashMap<>();
+        this.pendingFiles = new HashSet<>();
+        this.analysisExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "javadoc-coverage-analysis");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Finds the root directories of the source files where a given list of classes are declared.
+     *
+     * @param classes the classes to get the source root directories
+     * @return the Set of source root directories
+     */
+    private static Set<Path> findSourceRoots(final ClassDoc[] classes) {
+        final Set<Path> roots = new HashSet<>();
+        for (final ClassDoc doc : classes) {
+            final SourcePosition position = doc.position();
+            if (position == null) {
+                continue;
+            }
+
+            Path root = Utils.normalizePath(position.file().toPath()).getParent();
+            final String packageName = doc.containingPackage().name();
+            for (int i = packageName.isEmpty() ? 0 : packageName.split("\\.").length; i > 0 && root != null; i--) {
+                root = root.getParent();
+            }
+
+            if (root != null) {
+                roots.add(root);
+            }
+        }
+
+        return roots;
+    }
+
+    /**
+     * Starts watching the source directories, blocking the current thread until it is interrupted.
+     */
+    void watch() {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            for (final Path root : sourceRoots) {
+                registerAll(watchService, root);
+            }
+
+            System.out.printf("%nWatching %d source directories for changes. Press Ctrl+C to stop.%n", sourceRoots.size());
+            while (!Thread.currentThread().isInterrupted()) {
+                final Set<Path> changedFiles = new HashSet<>();
+                WatchKey key = watchService.take();
+                do {
+                    processEvents(watchService, key, changedFiles);
+                    key = watchService.poll(SETTLE_TIME_MS, MILLISECONDS);
+                } while (key != null);
+
+                if (!changedFiles.isEmpty()) {
+                    submit(changedFiles);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            analysisExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds changed files to be analysed, scheduling an analysis if there isn't one already.
+     * If an analysis is running, the files will be analysed right after it finishes.
+     *
+     * @param changedFiles the changed Java files to analyse
+     */
+    private synchronized void submit(final Set<Path> changedFiles) {
+        pendingFiles.addAll(changedFiles);
+        if (!analysisScheduled) {
+            analysisScheduled = true;
+            analysisExecutor.execute(this::analysePendingFiles);
+        }
+    }
+
+    /**
+     * Analyses all pending changed files, until there is no more pending file.
+     */
+    private void analysePendingFiles() {
+        Set<Path> changedFiles;
+        while (!(changedFiles = takePendingFiles()).isEmpty()) {
+            try {
+                doclet.update(changedFiles, sourceRoots);
+            } catch (RuntimeException e) {
+                System.err.printf("JavaDoc Coverage report could not be updated: %s%n", e);
+            }
+        }
+    }
+
+    /**
+     * Gets the changed files waiting to be analysed and clears the pending list.
+     * If there is no pending file, the current analysis is finished.
+     *
+     * @return the Set of pending files
+     */
+    private synchronized Set<Path> takePendingFiles() {
+        final Set<Path> changedFiles = new HashSet<>(pendingFiles);
+        pendingFiles.clear();
+        analysisScheduled = !changedFiles.isEmpty();
+        return changedFiles;
+    }
+
+    /**
+     * Collects the Java files changed inside the directory associated to a given {@link WatchKey}.
+     * Directories created inside a watched directory start being watched too.
+     *
+     * @param watchService the service where the directories are registered
+     * @param key the key signaling changes into a directory
+     * @param changedFiles the Set where the changed Java files will be added to
+     * @throws IOException when a created directory cannot be registered
+     */
+    private void processEvents(final WatchService watchService, final WatchKey key, final Set<Path> changedFiles) throws IOException {
+        final Path dir = watchedDirs.get(key);
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            /*Events may be lost if they happen faster than they are processed.
+            * They are ignored and the next change into the files will update the report.*/
+            if (dir == null || event.kind() == OVERFLOW) {
+                continue;
+            }
+
+            final Path path = dir.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                registerAll(watchService, path);
+                try (Stream<Path> files = Files.walk(path)) {
+                    files.filter(this::isJavaFile).forEach(changedFiles::add);
+                }
+            } else if (isJavaFile(path)) {
+                changedFiles.add(path);
+            }
+        }
+
+        if (!key.reset()) {
+            watchedDirs.remove(key);
+        }
+    }
+
+    /**
+     * Registers a directory and all its sub-directories into a {@link WatchService}.
+     *
+     * @param watchService the service to register the directories
+     * @param root the directory to start the registration from
+     * @throws IOException when some directory cannot be registered
+     */
+    private void registerAll(final WatchService watchService, final Path root) throws IOException {
+        try (Stream<Path> dirs = Files.walk(root)) {
+            for (final Path dir : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+                watchedDirs.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+            }
+        }
+    }
+
+    private boolean isJavaFile(final Path path) {
+        return path.getFileName().toString().endsWith(".java");
+    }
+}
@@ -16,9 +16,12 @@
 package com.manoelcampos.javadoc.coverage;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.DoubleStream;
 
 /**
@@ -43,25 +46,62 @@ public final class Utils {
      * for a method is documented or not.</p>
      *
      * @param javadoc the complete JavaDoc for an element.
-     * @return
+     * @return true if there is some text before the first tag, false otherwise
      */
-    public static boolean isElementDocumented(final String javadoc) {
+    public static boolean isElementDocumented(final CharSequence javadoc) {
         /*
-         * Try to get the text before the first @. This text represents
+         * Try to find some text before the first @. This text represents
          * the documentation for the element (such as a method).
          * The first @ represents the beginning of the first tag (such as a @param tag).
+         * The JavaDoc is scanned in place, so that no part of it is copied.
          */
-        final Matcher matcher = Pattern.compile("^([^@]+)").matcher(javadoc);
-        return matcher.find() && isNotStringEmpty(matcher.group(0));
+        for (int i = 0; i < javadoc.length(); i++) {
+            final char c = javadoc.charAt(i);
+            if (c == '@') {
+                return false;
+            }
+
+            if (!isBlank(c)) {
+                return true;
+            }
+        }
 
+        return false;
     }
 
-    public static boolean isNotStringEmpty(final String str) {
+    public static boolean isNotStringEmpty(final CharSequence str) {
         return !isStringEmpty(str);
     }
 
-    public static boolean isStringEmpty(final String str) {
-        return str == null || str.trim().isEmpty();
+    /**
+     * Checks if a String is null or contains just blank chars.
+     * The String is scanned in place, instead of being trimmed into a new String.
+     *
+     * @param str the String to check
+     * @return true if the String is null or blank, false otherwise
+     */
+    public static boolean isStringEmpty(final CharSequence str) {
+        if (str == null) {
+            return true;
+        }
+
+        for (int i = 0; i < str.length(); i++) {
+            if (!isBlank(str.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks if a char is blank, considering the same chars removed by {@link String#trim()}.
+     *
+     * @param c the char to check
+     * @return true if the char is blank, false otherwise
+     */
+    private static boolean isBlank(final char c) {
+        return c <= ' ';
     }
 
     /**
@@ -84,6 +124,63 @@ public final class Utils {
         return path;
     }
 
+    /**
+     * Converts a path to its absolute and normalized form,
+     * so that paths to the same file can be compared.
+     *
+     * @param path the path to normalize
+     * @return the absolute and normalized path
+     */
+    public static Path normalizePath(final Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Creates an empty temporary file at the same directory of a given file, to be moved over it later.
+     * Unlike {@link Files#createTempFile(Path, String, String)}, which makes the file readable
+     * just by its owner, the file gets the default permissions, so that
+     * the moved file can still be read by other users, such as a web server.
+     *
+     * @param file the file the temporary file will be moved to
+     * @return the path of the created temporary file
+     * @throws IOException when the temporary file cannot be created
+     */
+    public static Path createTempFileFor(final Path file) throws IOException {
+        final Path dir = file.toAbsolutePath().getParent();
+        final String prefix = "." + file.getFileName() + ".";
+        while (true) {
+            final Path tempFile = dir.resolve(prefix + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                return Files.createFile(tempFile);
+            } catch (FileAlreadyExistsException e) {
+                /*Tries another random name.*/
+            }
+        }
+    }
+
+    /**
+     * Escapes the chars which aren't allowed into XML/HTML text and attribute values.
+     *
+     * @param text the text to escape
+     * @return the escaped text
+     */
+    public static String escapeXml(final String text) {
+        final StringBuilder builder = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '<': builder.append("&lt;"); break;
+                case '>': builder.append("&gt;"); break;
+                case '&': builder.append("&amp;"); break;
+                case '"': builder.append("&quot;"); break;
+                case '\'': builder.append("&#39;"); break;
+                default: builder.append(c);
+            }
+        }
+
+        return builder.toString();
+    }
+
     /**
      * Computes the percentage that a partial value corresponds to a given total.
      *
@@ -17,11 +17,15 @@ package com.manoelcampos.javadoc.coverage.exporter;
 
 import com.manoelcampos.javadoc.coverage.CoverageDoclet;
 import com.manoelcampos.javadoc.coverage.Utils;
+import com.manoelcampos.javadoc.coverage.stats.CoverageRanking;
 import com.manoelcampos.javadoc.coverage.stats.JavaDocsStats;
+import com.manoelcampos.javadoc.coverage.stats.RankedElement;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 /**
  * Abstract class to implement JavaDoc Coverage reports in different formats.
@@ -32,8 +36,20 @@ import java.io.PrintWriter;
  */
 public abstract class AbstractDataExporter implements DataExporter {
     private final JavaDocsStats stats;
-    private final PrintWriter writer;
+    private PrintWriter writer;
     private File file;
+
+    /**
+     * The stream of the report file currently being written, which replaces the file just if
+     * it's {@link ReplaceIfChangedOutputStream#commit() committed},
+     * or null if the report is printed to the standard output.
+     */
+    private ReplaceIfChangedOutputStream fileOut;
+
+    /**
+     * The report file currently being written, which is a different one for each chunk of a split report.
+     */
+    private File currentFile;
     private final CoverageDoclet doclet;
     private final String reportFileName;
 
@@ -46,19 +62,8 @@ public abstract class AbstractDataExporter implements DataExporter {
     protected AbstractDataExporter(final CoverageDoclet doclet, final String fileExtension) {
         this.doclet = doclet;
 
-        if (Utils.isStringEmpty(fileExtension)) {
-            writer = new PrintWriter(System.out);
-            this.reportFileName = "";
-        } else {
-            this.reportFileName = generateReportFileName(fileExtension);
-            try {
-                this.writer = doclet.getWriter(file);
-            } catch (FileNotFoundException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        this.stats = new JavaDocsStats(doclet.getRootDoc());
+        this.reportFileName = Utils.isStringEmpty(fileExtension) ? "" : generateReportFileName(fileExtension);
+        this.stats = doclet.getStats();
     }
 
     /**
@@ -90,16 +95,23 @@ public abstract class AbstractDataExporter implements DataExporter {
     }
 
     /**
-     * Gets the extension to add to a given file if it doesn't have one.
+     * Gets the extension to add to a given file if it doesn't have the extension of the report format.
+     * When {@link CoverageDoclet#isMultipleReportFiles() multiple formats are written to files},
+     * the extension is added even if the file has another one, so that each format gets its own file.
+     * Otherwise, a file which already has an extension is kept as given.
      *
      * @param fileName             the file name to try getting and extension to add
-     * @param defaultFileExtension the default file extension to return if the file doesn't have one
-     * @return the file extension to add to the file it it doesn't have one or an empty string
-     * if it already has.
+     * @param defaultFileExtension the extension of the report format
+     * @return the file extension to add to the file or an empty string if no extension must be added
      */
     private String fileExtensionToAdd(final String fileName, final String defaultFileExtension) {
-        return Utils.getFileExtension(fileName).isEmpty() ?
-                getFileExtensionStartingWithDot(defaultFileExtension) : "";
+        final String extension = getFileExtensionStartingWithDot(defaultFileExtension);
+        final String currentExtension = Utils.getFileExtension(fileName);
+        if (currentExtension.equalsIgnoreCase(extension) || (!currentExtension.isEmpty() && !doclet.isMultipleReportFiles())) {
+            return "";
+        }
+
+        return extension;
     }
 
     /**
@@ -119,20 +131,117 @@ public abstract class AbstractDataExporter implements DataExporter {
 
     @Override
     public boolean build() {
+        this.writer = openWriter(file);
+        boolean complete = false;
         try {
             header();
             exportClassesDocStats();
             exportPackagesDocStats();
+            exportRanking();
             exportProjectDocumentationCoverageSummary();
             footer();
-            afterBuild();
-            getWriter().flush();
-            return true;
+            commitWriter();
+            complete = true;
         } finally {
-            getWriter().close();
+            closeWriter(complete);
+        }
+
+        afterBuild();
+        return true;
+    }
+
+    /**
+     * Exports the ranking of the worst documented elements, if elements are being ranked.
+     *
+     * @see JavaDocsStats#getRanking()
+     */
+    private void exportRanking() {
+        final CoverageRanking ranking = stats.getRanking();
+        if (ranking == null) {
+            return;
+        }
+
+        exportRankedElements("Worst Documented Packages", ranking.getWorstPackages());
+        exportRankedElements("Worst Documented Classes", ranking.getWorstClasses());
+        exportRankedElements("Worst Documented Methods", ranking.getWorstMethods());
+    }
+
+    /**
+     * Opens the {@link PrintWriter} where the report will be written to,
+     * which is the standard output if the exporter doesn't use a report file.
+     * Each time the report is built, a new writer is open.
+     *
+     * @param file the report file to write or null to print the report to the standard output
+     * @return the open {@link PrintWriter}
+     */
+    private PrintWriter openWriter(final File file) {
+        this.currentFile = file;
+        if (file == null) {
+            this.fileOut = null;
+            return new PrintWriter(System.out);
+        }
+
+        try {
+            this.fileOut = new ReplaceIfChangedOutputStream(file.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return doclet.getWriter(fileOut);
+    }
+
+    /**
+     * Commits the report file after all its content was written, so that it replaces the existing file
+     * when the writer is closed. If the report isn't committed, such as when an exception is thrown
+     * while it's built, the existing report file is kept.
+     */
+    private void commitWriter() {
+        if (getWriter().checkError()) {
+            throw newWriteError();
+        }
+
+        if (fileOut != null) {
+            fileOut.commit();
         }
     }
 
+    /**
+     * Closes the {@link #getWriter() writer} after the report is built.
+     * The standard output is just flushed, so that the report can be built again.
+     * Since a committed report file is just replaced when the writer is closed,
+     * an error found meanwhile is thrown instead of being silently ignored by the {@link PrintWriter}.
+     *
+     * @param committed true if the report file was committed, false if it's being discarded after an error
+     */
+    private void closeWriter(final boolean committed) {
+        if (fileOut == null) {
+            getWriter().flush();
+            return;
+        }
+
+        getWriter().close();
+        if (committed && getWriter().checkError()) {
+            throw newWriteError();
+        }
+    }
+
+    private UncheckedIOException newWriteError() {
+        final String name = currentFile == null ? "standard output" : "file " + currentFile.getAbsolutePath();
+        return new UncheckedIOException(new IOException("Error writing the report to the " + name));
+    }
+
+    /**
+     * Closes the current report file and starts writing the report to another file.
+     * It's used by exporters which split the report into multiple files.
+     *
+     * @param file the file to write the report to from now on
+     */
+    protected void switchFile(final File file) {
+        commitWriter();
+        closeWriter(true);
+        this.writer = openWriter(file);
+    }
+
     protected PrintWriter getWriter() {
         return writer;
     }
@@ -145,6 +254,10 @@ public abstract class AbstractDataExporter implements DataExporter {
         return file;
     }
 
+    protected CoverageDoclet getDoclet() {
+        return doclet;
+    }
+
     protected abstract void exportProjectDocumentationCoverageSummary();
 
     protected abstract void header();
@@ -156,4 +269,12 @@ public abstract class AbstractDataExporter implements DataExporter {
     protected abstract void exportPackagesDocStats();
 
     protected abstract void exportClassesDocStats();
+
+    /**
+     * Exports a list of the worst documented elements of a given kind.
+     *
+     * @param title the title of the list
+     * @param elements the elements to export, sorted from the worst to the best documented one
+     */
+    protected abstract void exportRankedElements(String title, List<RankedElement> elements);
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.exporter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Writer} which hands the written text over to a background thread,
+ * so that building a report overlaps with writing it to a slow disk, such as a network file system.
+ *
+ * <p>Text is collected into chunks which are put into a bounded queue (an {@link ArrayBlockingQueue},
+ * which is a ring buffer). The background thread takes all chunks available at once, writes them
+ * and flushes the underlying writer once for the whole batch.
+ * When the queue is full, the thread building the report waits, so that memory usage is bounded.
+ * Such a waiting time is added to a given counter, showing if the queue depth should be increased.</p>
+ *
+ * <p>{@link #flush()} just hands the current chunk over to the background thread,
+ * while {@link #close()} waits until everything is written and throws any error found by the background thread.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class AsyncReportWriter extends Writer {
+    /**
+     * The number of chars of each chunk put into the queue.
+     */
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * An empty chunk put into the queue to make the background thread stop.
+     */
+    private static final char[] END = new char[0];
+
+    private final Writer out;
+    private final BlockingQueue<char[]> queue;
+    private final LongAdder queueFullNanos;
+    private final Thread thread;
+
+    private char[] chunk = new char[CHUNK_SIZE];
+    private int chunkLength;
+    private boolean closed;
+
+    /**
+     * An error found by the background thread while writing, which is thrown when the writer is closed.
+     */
+    private volatile IOException error;
+
+    /**
+     * Instantiates a writer and starts its background thread.
+     *
+     * @param out the writer to write the text to in background
+     * @param queueDepth the maximum number of chunks waiting to be written
+     * @param queueFullNanos the counter to add the time the writer waited for a full queue to, in nanoseconds
+     */
+    public AsyncReportWriter(final Writer out, final int queueDepth, final LongAdder queueFullNanos) {
+        this.out = out;
+        this.queue = new ArrayBlockingQueue<>(queueDepth);
+        this.queueFullNanos = queueFullNanos;
+        this.thread = new Thread(this::writeChunks, "javadoc-coverage-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void write(final char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            final int count = Math.min(len, CHUNK_SIZE - chunkLength);
+            System.arraycopy(cbuf, off, chunk, chunkLength, count);
+            chunkLength += count;
+            off += count;
+            len -= count;
+            if (chunkLength == CHUNK_SIZE) {
+                putChunk();
+            }
+        }
+    }
+
+    @Override
+    public void write(final String str, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            final int count = Math.min(len, CHUNK_SIZE - chunkLength);
+            str.getChars(off, off + count, chunk, chunkLength);
+            chunkLength += count;
+            off += count;
+            len -= count;
+            if (chunkLength == CHUNK_SIZE) {
+                putChunk();
+            }
+        }
+    }
+
+    /**
+     * Hands the current chunk over to the background thread, without waiting for it to be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (chunkLength > 0) {
+            putChunk();
+        }
+    }
+
+    /**
+     * Waits for all the text to be written and closes the underlying writer.
+     *
+     * @throws IOException when the background thread failed to write the text
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        flush();
+        closed = true;
+        put(END);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the report to be written");
+        }
+
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The writer is closed");
+        }
+    }
+
+    /**
+     * Puts the current chunk into the queue, trimming it to the chars written, and starts a new chunk.
+     */
+    private void putChunk() throws IOException {
+        put(chunkLength == CHUNK_SIZE ? chunk : Arrays.copyOf(chunk, chunkLength));
+        chunk = new char[CHUNK_SIZE];
+        chunkLength = 0;
+    }
+
+    /**
+     * Puts a chunk into the queue, measuring the time waited if the queue is full.
+     */
+    private void put(final char[] data) throws IOException {
+        if (queue.offer(data)) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        try {
+            queue.put(data);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the report write queue");
+        } finally {
+            queueFullNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Writes the chunks taken from the queue until the end chunk is found.
+     * After an error, the remaining chunks are just discarded, so that the thread building the report never blocks.
+     */
+    private void writeChunks() {
+        final List<char[]> batch = new ArrayList<>();
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                for (final char[] data : batch) {
+                    if (data == END) {
+                        closeOut();
+                        return;
+                    }
+
+                    if (error == null) {
+                        writeOut(data);
+                    }
+                }
+
+                if (error == null) {
+                    flushOut();
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            error = new InterruptedIOException("Interrupted while writing the report");
+        }
+    }
+
+    private void writeOut(final char[] data) {
+        try {
+            out.write(data);
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    private void flushOut() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    private void closeOut() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            if (error == null) {
+                error = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.exporter;
+
+import com.manoelcampos.javadoc.coverage.Utils;
+import com.manoelcampos.javadoc.coverage.stats.ElementKind;
+import com.manoelcampos.javadoc.coverage.stats.UndocumentedElementListener;
+import com.sun.javadoc.SourcePosition;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams each undocumented element to a file in the Checkstyle XML format,
+ * while the elements are analysed, so that CI tools can annotate the lines
+ * where documentation is missing.
+ * Entries are written as soon as they are notified, instead of being collected first.
+ * Consecutive entries from the same source file are grouped into the same {@code <file>} element.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public class CheckstyleWriter implements UndocumentedElementListener, Closeable {
+    private final File file;
+    private final Writer writer;
+
+    /**
+     * The source file of the last written entry or null if no entry was written yet.
+     */
+    private String currentSourceFile;
+    private long entries;
+
+    /**
+     * Instantiates a writer and writes the Checkstyle XML header into a given file.
+     *
+     * @param file the file to write the undocumented elements to
+     */
+    public CheckstyleWriter(final File file) {
+        this.file = file;
+        try {
+            this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16);
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<checkstyle version=\"8.0\">\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void undocumented(final ElementKind kind, final String element, final String item, final SourcePosition position) {
+        if (position == null) {
+            return;
+        }
+
+        try {
+            final String sourceFile = position.file().getPath();
+            if (!sourceFile.equals(currentSourceFile)) {
+                if (currentSourceFile != null) {
+                    writer.write("</file>\n");
+                }
+
+                writer.write("<file name=\"");
+                writeEscaped(sourceFile);
+                writer.write("\">\n");
+                currentSourceFile = sourceFile;
+            }
+
+            writer.write("<error line=\"");
+            writer.write(Integer.toString(position.line()));
+            writer.write("\" column=\"");
+            writer.write(Integer.toString(Math.max(position.column(), 1)));
+            writer.write("\" severity=\"warning\" message=\"");
+            writeEscaped(getMessage(kind, element, item));
+            writer.write("\" source=\"javadoc-coverage.missing-");
+            writer.write(kind.getOptionName());
+            writer.write("\"/>\n");
+            entries++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String getMessage(final ElementKind kind, final String element, final String item) {
+        switch (kind) {
+            case PARAM: return "Missing @param " + item + " for " + element;
+            case TYPE_PARAM: return "Missing @param <" + item + "> for " + element;
+            case RETURN: return "Missing @return for " + element;
+            case EXCEPTION: return "Missing @throws " + item + " for " + element;
+            default: return "Missing JavaDoc for " + kind.getOptionName().replace('_', ' ') + " " + element;
+        }
+    }
+
+    /**
+     * Writes a text escaping the chars which aren't allowed into XML attribute values.
+     *
+     * @param text the text to write
+     * @throws IOException when the text cannot be written
+     */
+    private void writeEscaped(final String text) throws IOException {
+        writer.write(Utils.escapeXml(text));
+    }
+
+    /**
+     * Writes the end of the Checkstyle XML and closes the file.
+     */
+    @Override
+    public void close() {
+        try {
+            if (currentSourceFile != null) {
+                writer.write("</file>\n");
+            }
+
+            writer.write("</checkstyle>\n");
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        System.out.printf("\nUndocumented elements (%d) saved to %s\n", entries, file.getAbsolutePath());
+    }
+}
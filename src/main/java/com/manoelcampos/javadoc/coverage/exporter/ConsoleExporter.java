@@ -18,7 +18,6 @@ package com.manoelcampos.javadoc.coverage.exporter;
 import com.manoelcampos.javadoc.coverage.CoverageDoclet;
 import com.manoelcampos.javadoc.coverage.Utils;
 import com.manoelcampos.javadoc.coverage.stats.*;
-import com.sun.javadoc.PackageDoc;
 
 import java.io.PrintWriter;
 import java.util.List;
@@ -46,14 +45,15 @@ public class ConsoleExporter extends AbstractDataExporter {
 
     @Override
     protected void exportProjectDocumentationCoverageSummary() {
-        getWriter().printf("Project Documentation Coverage: %.2f%%\n\n", getStats().getDocumentedMembersPercent());
+        getWriter().printf("Project Documentation Coverage: %.2f%%\n", getStats().getDocumentedMembersPercent());
+        getWriter().printf("Poorly Documented Elements    : %d\n\n", getStats().getCoverageTotals().getPoorlyDocumentedMembers());
     }
 
     @Override
     protected void exportPackagesDocStats() {
         final PackagesDocStats packagesDocStats = getStats().getPackagesDocStats();
         exportPkgsOrClassesDocStats(packagesDocStats);
-        packagesDocStats.getPackagesDoc().forEach(this::exportPackageDocStats);
+        packagesDocStats.getPackagesStats().forEach(this::exportPackageDocStats);
         getWriter().println();
     }
 
@@ -65,11 +65,11 @@ public class ConsoleExporter extends AbstractDataExporter {
 
     /**
      * Exports the statistics about JavaDoc coverage of a given package.
-     *  @param doc the object containing the JavaDoc coverage data
+     *  @param packageStats the object containing the JavaDoc coverage data
      *
      */
-    private void exportPackageDocStats(final PackageDoc doc) {
-        getWriter().printf("\tPackage %s. Documented: %s\n", doc.name(), Utils.isNotStringEmpty(doc.commentText()));
+    private void exportPackageDocStats(final PackageDocStats packageStats) {
+        getWriter().printf("\tPackage %s. Documented: %s\n", packageStats.getName(), packageStats.isDocumented());
     }
 
     @Override
@@ -77,21 +77,39 @@ public class ConsoleExporter extends AbstractDataExporter {
         final ClassesDocStats classesDocStats = getStats().getClassesDocStats();
         exportPkgsOrClassesDocStats(classesDocStats);
 
-        for (final ClassDocStats classStats : getStats().getClassesDocStats().getClassesList()) {
-            exportClassDocStats(classStats);
+        for (final ClassGroupDocStats group : classesDocStats.getClassGroups()) {
+            exportClassGroupDocStats(group);
         }
         getWriter().println();
     }
 
+    /**
+     * Exports the statistics about JavaDoc coverage of a top-level class,
+     * followed by the ones of its inner types.
+     *
+     * @param group the object containing the JavaDoc coverage data of the top-level class and its inner types
+     */
+    private void exportClassGroupDocStats(final ClassGroupDocStats group) {
+        exportClassDocStats(group.getTopLevelClass());
+        if (group.getInnerClasses().isEmpty()) {
+            return;
+        }
+
+        getWriter().printf("\t\t%-20s %6d Undocumented: %6d Documented: %6d (%.2f%%) \n",
+                "Including Inner Types:", group.getMembersNumber(), group.getUndocumentedMembers(),
+                group.getDocumentedMembers(), group.getDocumentedMembersPercent());
+        group.getInnerClasses().forEach(this::exportClassDocStats);
+    }
+
     /**
      * Exports the statistics about JavaDoc coverage of a given class.
      *  @param classStats the object containing the JavaDoc coverage data
      *
      */
     private void exportClassDocStats(final ClassDocStats classStats) {
-        getWriter().printf("\t%s: %s Package: %s Documented: %s (%.2f%%)\n",
+        getWriter().printf("\t%s: %s Package: %s Documented: %s (%.2f%%)%s\n",
                 classStats.getType(), classStats.getName(), classStats.getPackageName(),
-                classStats.isDocumented(), classStats.getDocumentedMembersPercent());
+                classStats.isDocumented(), classStats.getDocumentedMembersPercent(), formatQuality(classStats.getQuality()));
 
         exportMembersDocStats(getWriter(), classStats.getFieldsStats());
         exportMethodsDocStats(getWriter(), classStats.getConstructorsStats());
@@ -100,13 +118,43 @@ public class ConsoleExporter extends AbstractDataExporter {
         getWriter().flush();
     }
 
+    @Override
+    protected void exportRankedElements(final String title, final List<RankedElement> elements) {
+        printRankedElements(getWriter(), title, elements);
+    }
+
+    /**
+     * Prints the ranking of the worst documented elements.
+     *
+     * @param writer the writer to print the ranking to
+     * @param ranking the ranking to print
+     */
+    public static void printRanking(final PrintWriter writer, final CoverageRanking ranking) {
+        printRankedElements(writer, "Worst Documented Packages", ranking.getWorstPackages());
+        printRankedElements(writer, "Worst Documented Classes", ranking.getWorstClasses());
+        printRankedElements(writer, "Worst Documented Methods", ranking.getWorstMethods());
+        writer.flush();
+    }
+
+    private static void printRankedElements(final PrintWriter writer, final String title, final List<RankedElement> elements) {
+        writer.printf("%s:\n", title);
+        int position = 0;
+        for (final RankedElement element : elements) {
+            writer.printf("\t%2d. %-11s %s Undocumented: %6d Documented: %6d (%.2f%%)\n",
+                    ++position, element.getType(), element.getName(), element.getUndocumentedMembers(),
+                    element.getDocumentedMembers(), element.getDocumentedMembersPercent());
+        }
+        writer.println();
+    }
+
     private void exportMethodsDocStats(final PrintWriter writer, final List<MethodDocStats> methodStatsList) {
         final String memberTypeFormat = "\t\t\t%-12s";
         for (final MethodDocStats methodStats : methodStatsList) {
-            writer.printf("\t\t%s: %s Documented: %s (%.2f%%)\n",
+            writer.printf("\t\t%s: %s Documented: %s (%.2f%%)%s\n",
                     methodStats.getType(), methodStats.getMethodName(),
-                    methodStats.isDocumented(), methodStats.getDocumentedMembersPercent());
+                    methodStats.isDocumented(), methodStats.getDocumentedMembersPercent(), formatQuality(methodStats.getQuality()));
             exportMembersDocStats(writer, methodStats.getParamsStats(), memberTypeFormat);
+            exportMembersDocStats(writer, methodStats.getTypeParamsStats(), memberTypeFormat);
 
             if (methodStats.getThrownExceptionsStats().getMembersNumber() > 0) {
                 exportMembersDocStats(writer, methodStats.getThrownExceptionsStats(), memberTypeFormat);
@@ -114,6 +162,16 @@ public class ConsoleExporter extends AbstractDataExporter {
         }
     }
 
+    /**
+     * Formats the issues of a poor description to be appended to the line of the element.
+     *
+     * @param quality the quality of the element's description
+     * @return the formatted issues or an empty String if the description isn't poor
+     */
+    private static String formatQuality(final CommentQuality quality) {
+        return quality.isPoor() ? " Quality: " + quality.getIssues() : "";
+    }
+
     private void exportMembersDocStats(final PrintWriter writer, final MembersDocStats membersDocStats) {
         exportMembersDocStats(writer, membersDocStats, "");
     }
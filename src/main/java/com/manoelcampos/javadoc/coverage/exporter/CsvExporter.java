@@ -0,0 +1,309 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.exporter;
+
+import com.manoelcampos.javadoc.coverage.CoverageDoclet;
+import com.manoelcampos.javadoc.coverage.stats.*;
+
+import java.util.List;
+
+/**
+ * Exports the JavaDoc coverage report to a CSV or TSV file,
+ * containing one flat row for each documentable element,
+ * so that the report can be bulk loaded into a database.
+ * Each row has an id and the id of its parent row (0 for the project row),
+ * representing the hierarchy of elements.
+ *
+ * <p>The report may be split into multiple files with a maximum number of rows each,
+ * using the {@link CoverageDoclet#CHUNK_ROWS_OPTION}.
+ * Each file starts with the header row.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public class CsvExporter extends AbstractDataExporter {
+    public static final String[] COLUMNS = {"id", "parent_id", "type", "name", "package", "members", "documented", "words", "quality_issues"};
+
+    private final char delimiter;
+
+    /**
+     * The maximum number of rows for each report file (excluding the header)
+     * or 0 to write all rows into a single file.
+     */
+    private final long chunkRows;
+
+    /**
+     * A buffer reused to build each row before writing it.
+     */
+    private final StringBuilder row;
+
+    private long lastId;
+    private long projectId;
+    private long chunkRowsCount;
+    private int chunk;
+
+    /**
+     * Instantiates an exporter to generate the JavaDoc coverage report as a CSV or TSV file.
+     *
+     * @param doclet the {@link CoverageDoclet} which computes the JavaDoc coverage statistics.
+     * @param delimiter the char to separate columns, where a tab generates a TSV file
+     *                  and any other char generates a CSV file
+     */
+    public CsvExporter(final CoverageDoclet doclet, final char delimiter) {
+        super(doclet, delimiter == '\t' ? ".tsv" : ".csv");
+        this.delimiter = delimiter;
+        final String[] chunkRowsOption = doclet.getOptionValues(CoverageDoclet.CHUNK_ROWS_OPTION);
+        this.chunkRows = chunkRowsOption.length > 1 ? Long.parseLong(chunkRowsOption[1]) : 0;
+        this.row = new StringBuilder(256);
+    }
+
+    /**
+     * Writes the header and the project row, so that other rows can refer to the project as their parent.
+     */
+    @Override
+    protected void header() {
+        lastId = 0;
+        chunk = 1;
+        chunkRowsCount = 0;
+        writeHeader();
+        projectId = writeRow(0, getStats(), "", "");
+    }
+
+    private void writeHeader() {
+        row.setLength(0);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                row.append(delimiter);
+            }
+            row.append(COLUMNS[i]);
+        }
+
+        getWriter().append(row).append('\n');
+    }
+
+    /**
+     * The project row is already written by the {@link #header()}.
+     */
+    @Override
+    protected void exportProjectDocumentationCoverageSummary() {/**/}
+
+    @Override
+    protected void footer() {/**/}
+
+    @Override
+    protected void exportPackagesDocStats() {
+        final PackagesDocStats packagesDocStats = getStats().getPackagesDocStats();
+        final long packagesId = writeRow(projectId, packagesDocStats, "", "");
+        for (final PackageDocStats packageStats : packagesDocStats.getPackagesStats()) {
+            writeRow(packagesId, packageStats, packageStats.getName(), packageStats.getName());
+        }
+    }
+
+    @Override
+    protected void exportClassesDocStats() {
+        final ClassesDocStats classesDocStats = getStats().getClassesDocStats();
+        final long classesId = writeRow(projectId, classesDocStats, "", "");
+        for (final ClassGroupDocStats group : classesDocStats.getClassGroups()) {
+            final long topLevelClassId = writeClassRows(classesId, group.getTopLevelClass());
+            for (final ClassDocStats innerClass : group.getInnerClasses()) {
+                writeClassRows(topLevelClassId, innerClass);
+            }
+        }
+    }
+
+    /**
+     * Writes the row for a class, followed by the rows of its members.
+     *
+     * @param parentId the id of the parent row, which is the row of the top-level class for inner types
+     * @param classStats the JavaDoc coverage statistics of the class
+     * @return the id of the class row
+     */
+    private long writeClassRows(final long parentId, final ClassDocStats classStats) {
+        final String className = classStats.getQualifiedName();
+        final String pkg = classStats.getPackageName();
+        final long classId = writeRow(parentId, classStats, className, pkg, classStats.getQuality());
+        writeMembersRow(classId, classStats.getFieldsStats(), className, pkg);
+        writeMembersRow(classId, classStats.getEnumsStats(), className, pkg);
+        writeMembersRow(classId, classStats.getAnnotationsStats(), className, pkg);
+        writeMethodsRows(classId, classStats.getConstructorsStats(), className, pkg);
+        writeMethodsRows(classId, classStats.getMethodsStats(), className, pkg);
+        return classId;
+    }
+
+    private void writeMethodsRows(final long classId, final List<MethodDocStats> methods, final String className, final String pkg) {
+        for (final MethodDocStats methodStats : methods) {
+            final String methodName = className + '#' + methodStats.getMethodName() + methodStats.getSignature();
+            final long methodId = writeRow(classId, methodStats, methodName, pkg, methodStats.getQuality());
+            writeMembersRow(methodId, methodStats.getParamsStats(), methodName, pkg);
+            writeMembersRow(methodId, methodStats.getTypeParamsStats(), methodName, pkg);
+            writeMembersRow(methodId, methodStats.getThrownExceptionsStats(), methodName, pkg);
+        }
+    }
+
+    /**
+     * Writes the row for a set of members if they should be printed.
+     *
+     * @see MembersDocStats#isPrintIfNoMembers()
+     */
+    private void writeMembersRow(final long parentId, final MembersDocStats membersDocStats, final String name, final String pkg) {
+        if (membersDocStats.getMembersNumber() > 0 || membersDocStats.isPrintIfNoMembers()) {
+            writeRow(parentId, membersDocStats, name, pkg);
+        }
+    }
+
+    /**
+     * The ranked elements are already written as rows of the packages, classes and methods,
+     * so rankings are left out to avoid counting such elements twice when the rows are summed.
+     */
+    @Override
+    protected void exportRankedElements(final String title, final List<RankedElement> elements) {/**/}
+
+    /**
+     * Writes a row into the report.
+     *
+     * @param parentId the id of the parent row
+     * @param stats the JavaDoc coverage statistics to write
+     * @param name the fully qualified name of the element
+     * @param pkg the package of the element
+     * @return the id of the written row
+     */
+    private long writeRow(final long parentId, final DocStats stats, final String name, final String pkg) {
+        return writeRow(parentId, stats, name, pkg, CommentQuality.NONE);
+    }
+
+    /**
+     * Writes a row into the report for an element having a description, such as a class or method.
+     *
+     * @param parentId the id of the parent row
+     * @param stats the JavaDoc coverage statistics to write
+     * @param name the fully qualified name of the element
+     * @param pkg the package of the element
+     * @param quality the quality of the element's description
+     * @return the id of the written row
+     */
+    private long writeRow(final long parentId, final DocStats stats, final String name, final String pkg, final CommentQuality quality) {
+        return writeRow(parentId, stats.getType(), name, pkg, stats.getMembersNumber(), stats.getDocumentedMembers(), quality);
+    }
+
+    /**
+     * Writes a row into the report, starting a new report file if the current one already has the max number of rows.
+     *
+     * @param parentId the id of the parent row
+     * @param type the type of the element
+     * @param name the fully qualified name of the element
+     * @param pkg the package of the element
+     * @param members the number of documentable members of the element
+     * @param documented the number of documented members of the element
+     * @param quality the quality of the element's description
+     * @return the id of the written row
+     */
+    private long writeRow(
+        final long parentId, final String type, final String name, final String pkg,
+        final long members, final long documented, final CommentQuality quality)
+    {
+        if (chunkRows > 0 && chunkRowsCount == chunkRows) {
+            startNextChunk();
+        }
+
+        final long id = ++lastId;
+        row.setLength(0);
+        row.append(id).append(delimiter)
+           .append(parentId).append(delimiter);
+        appendValue(type).append(delimiter);
+        appendValue(name).append(delimiter);
+        appendValue(pkg).append(delimiter);
+        row.append(members).append(delimiter)
+           .append(documented).append(delimiter)
+           .append(quality.getWords()).append(delimiter);
+        appendValue(quality.getIssues()).append('\n');
+
+        getWriter().append(row);
+        chunkRowsCount++;
+        return id;
+    }
+
+    /**
+     * Appends a text value to the current row, escaping it if required.
+     * CSV values containing the delimiter, quotes or line breaks are quoted.
+     * Since TSV doesn't support quoting, tabs and line breaks are replaced by spaces.
+     *
+     * @param value the value to append
+     * @return the row buffer
+     */
+    private StringBuilder appendValue(final String value) {
+        if (delimiter == '\t') {
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                row.append(c == '\t' || c == '\n' || c == '\r' ? ' ' : c);
+            }
+
+            return row;
+        }
+
+        if (!requiresQuotes(value)) {
+            return row.append(value);
+        }
+
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+
+        return row.append('"');
+    }
+
+    private boolean requiresQuotes(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Closes the current report file and starts the next one.
+     * The first file has the report name, while the next ones have the chunk number
+     * added to the name, such as {@code javadoc-coverage-2.csv}.
+     */
+    private void startNextChunk() {
+        chunk++;
+        chunkRowsCount = 0;
+        switchFile(getDoclet().getOutputFile(getChunkFileName(chunk)));
+        writeHeader();
+    }
+
+    private String getChunkFileName(final int chunk) {
+        final String fileName = getReportFileName();
+        final int i = fileName.lastIndexOf('.');
+        return fileName.substring(0, i) + "-" + chunk + fileName.substring(i);
+    }
+
+    @Override
+    public void afterBuild() {
+        if (chunk > 1) {
+            System.out.printf("\nJavaDoc Coverage report saved to %s and %d more files\n", getFile().getAbsolutePath(), chunk - 1);
+        } else {
+            System.out.printf("\nJavaDoc Coverage report saved to %s\n", getFile().getAbsolutePath());
+        }
+    }
+}
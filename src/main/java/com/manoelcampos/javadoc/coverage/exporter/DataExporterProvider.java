@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.exporter;
+
+import com.manoelcampos.javadoc.coverage.CoverageDoclet;
+
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * A service provider which creates {@link DataExporter}s for one or more report formats.
+ * Providers are discovered using the {@link ServiceLoader}, so that new report formats
+ * can be added just by putting a jar into the doclet path. Such a jar must have a
+ * {@code META-INF/services/com.manoelcampos.javadoc.coverage.exporter.DataExporterProvider} file
+ * containing the fully qualified name of the provider class, which must have a public no-args constructor.
+ *
+ * <p>Exporters get the JavaDoc coverage statistics from {@link CoverageDoclet#getStats()}.
+ * When multiple formats are given, the exporters which write to files are built concurrently,
+ * each one on its own thread, so they must not change the statistics.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see CoverageDoclet#FORMAT_OPTION
+ * @since 1.3.0
+ */
+public interface DataExporterProvider {
+    /**
+     * Gets the names of the report formats supported by this provider,
+     * which are given to the {@link CoverageDoclet#FORMAT_OPTION}, such as "html".
+     *
+     * @return a List of format names in lower case
+     */
+    List<String> getFormats();
+
+    /**
+     * Creates an exporter for a given report format.
+     *
+     * @param doclet the {@link CoverageDoclet} which computes the JavaDoc coverage statistics.
+     * @param format one of the {@link #getFormats() formats supported} by this provider
+     * @return the exporter to build the report in the given format
+     */
+    DataExporter create(CoverageDoclet doclet, String format);
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.exporter;
+
+import com.manoelcampos.javadoc.coverage.CoverageDoclet;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Provides the exporters for the report formats built into the Doclet.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see CoverageDoclet#REPORT_FORMATS
+ * @since 1.3.0
+ */
+public class DefaultDataExporterProvider implements DataExporterProvider {
+    @Override
+    public List<String> getFormats() {
+        return Collections.unmodifiableList(Arrays.asList(CoverageDoclet.REPORT_FORMATS));
+    }
+
+    @Override
+    public DataExporter create(final CoverageDoclet doclet, final String format) {
+        switch (format) {
+            case "csv": return new CsvExporter(doclet, ',');
+            case "tsv": return new CsvExporter(doclet, '\t');
+            case "console": return new ConsoleExporter(doclet);
+            case "markdown": return new MarkdownExporter(doclet);
+            default: return new HtmlExporter(doclet);
+        }
+    }
+}
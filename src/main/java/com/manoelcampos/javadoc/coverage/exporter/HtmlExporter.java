@@ -16,13 +16,19 @@
 package com.manoelcampos.javadoc.coverage.exporter;
 
 import com.manoelcampos.javadoc.coverage.CoverageDoclet;
-import com.manoelcampos.javadoc.coverage.Utils;
+import com.manoelcampos.javadoc.coverage.history.CoverageHistory;
 import com.manoelcampos.javadoc.coverage.stats.ClassDocStats;
+import com.manoelcampos.javadoc.coverage.stats.ClassGroupDocStats;
+import com.manoelcampos.javadoc.coverage.stats.CommentQuality;
 import com.manoelcampos.javadoc.coverage.stats.MembersDocStats;
 import com.manoelcampos.javadoc.coverage.stats.MethodDocStats;
-import com.sun.javadoc.PackageDoc;
+import com.manoelcampos.javadoc.coverage.stats.PackageDocStats;
+import com.manoelcampos.javadoc.coverage.stats.RankedElement;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Exports the JavaDoc coverage report to an HTML file.
@@ -33,6 +39,11 @@ import java.util.List;
 public class HtmlExporter extends AbstractDataExporter {
     public static final String COLUMNS = "<td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%.2f%%</td>\n";
 
+    /**
+     * The number of days of history shown into the coverage trend chart.
+     */
+    private static final int TREND_DAYS = 365;
+
     public HtmlExporter(final CoverageDoclet doclet) {
         super(doclet, ".html");
     }
@@ -40,6 +51,9 @@ public class HtmlExporter extends AbstractDataExporter {
     @Override
     protected void exportProjectDocumentationCoverageSummary() {
         getWriter().printf("<tr>" + COLUMNS + "</tr>", "<strong>Project Documentation Coverage</strong>", "", "", "", "", "", getStats().getDocumentedMembersPercent());
+        getWriter().printf(
+            "<tr><td><strong>Poorly Documented Elements</strong></td><td colspan='6'>%d</td></tr>\n",
+            getStats().getCoverageTotals().getPoorlyDocumentedMembers());
     }
 
     @Override
@@ -56,6 +70,7 @@ public class HtmlExporter extends AbstractDataExporter {
         getWriter().println("<body>");
         getWriter().println("<div class='table-responsive'> ");
         getWriter().println("<h2>JavaDoc Coverage Report</h2>");
+        exportTrendChart();
         getWriter().println("<table id='table1' class='table table-bordered table-with-sticky-rows'>");
         getWriter().println("<thead class='thead-inverse'>");
         getWriter().println("<tr>");
@@ -65,6 +80,24 @@ public class HtmlExporter extends AbstractDataExporter {
         getWriter().println("<tbody>");
     }
 
+    /**
+     * Exports a chart with the project coverage trend for the last {@link #TREND_DAYS},
+     * if a coverage history is enabled.
+     */
+    private void exportTrendChart() {
+        final CoverageHistory history = getDoclet().getHistory();
+        if (history == null) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        try {
+            getWriter().println(TrendChart.toSvg(history.readRuns(now - TimeUnit.DAYS.toMillis(TREND_DAYS), now)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Override
     protected void footer() {
         getWriter().println("</tbody>");
@@ -82,33 +115,62 @@ public class HtmlExporter extends AbstractDataExporter {
     @Override
     protected void exportPackagesDocStats() {
         exportMembersDocStatsSummary(getStats().getPackagesDocStats());
-        for (final PackageDoc doc : getStats().getPackagesDocStats().getPackagesDoc()) {
+        for (final PackageDocStats packageStats : getStats().getPackagesDocStats().getPackagesStats()) {
             getWriter().println("<tr>");
-            final Boolean documented = Utils.isNotStringEmpty(doc.getRawCommentText());
-            final double coverage = Utils.boolToInt(documented)*100;
-            exportLine(2, "Package", doc.name(), "", "", "", documented.toString(), coverage);
+            final Boolean documented = packageStats.isDocumented();
+            exportLine(2, packageStats.getType(), packageStats.getName(), "", "", "", documented.toString(), packageStats.getDocumentedMembersPercent());
         }
     }
 
     @Override
     protected void exportClassesDocStats() {
         exportMembersDocStatsSummary(getStats().getClassesDocStats());
-        for (final ClassDocStats classDocStats : getStats().getClassesDocStats().getClassesList()) {
-            exportMembersDocStatsSummary(classDocStats, 2, classDocStats.getName(), classDocStats.getPackageName());
-            exportMembersDocStatsSummary(classDocStats.getFieldsStats(), 3);
-            exportMethodsDocStats(classDocStats.getConstructorsStats());
-            exportMethodsDocStats(classDocStats.getMethodsStats());
+        for (final ClassGroupDocStats group : getStats().getClassesDocStats().getClassGroups()) {
+            exportClassDocStats(group.getTopLevelClass());
+            if (!group.getInnerClasses().isEmpty()) {
+                exportMembersDocStatsSummary(group, 3, "Including Inner Types", "");
+                group.getInnerClasses().forEach(this::exportClassDocStats);
+            }
         }
     }
 
+    private void exportClassDocStats(final ClassDocStats classDocStats) {
+        exportMembersDocStatsSummary(classDocStats, 2, classDocStats.getName() + formatQuality(classDocStats.getQuality()), classDocStats.getPackageName());
+        exportMembersDocStatsSummary(classDocStats.getFieldsStats(), 3);
+        exportMethodsDocStats(classDocStats.getConstructorsStats());
+        exportMethodsDocStats(classDocStats.getMethodsStats());
+    }
+
     private void exportMethodsDocStats(final List<MethodDocStats> methods) {
         for (MethodDocStats m : methods) {
-            exportMembersDocStatsSummary(m, 4, m.getMethodName(), "");
+            exportMembersDocStatsSummary(m, 4, m.getMethodName() + formatQuality(m.getQuality()), "");
             exportMembersDocStatsSummary(m.getParamsStats(), 5);
+            exportMembersDocStatsSummary(m.getTypeParamsStats(), 5);
             exportMembersDocStatsSummary(m.getThrownExceptionsStats(), 5);
         }
     }
 
+    /**
+     * Formats the issues of a poor description as a label to be appended to the name of the element.
+     *
+     * @param quality the quality of the element's description
+     * @return the formatted label or an empty String if the description isn't poor
+     */
+    public static String formatQuality(final CommentQuality quality) {
+        return quality.isPoor() ? String.format(" <span class='label label-warning'>%s</span>", quality.getIssues()) : "";
+    }
+
+    @Override
+    protected void exportRankedElements(final String title, final List<RankedElement> elements) {
+        getWriter().printf("<tr><td colspan='7'><strong>%s</strong></td></tr>\n", title);
+        for (final RankedElement element : elements) {
+            exportLine(
+                    2, element.getType(), element.getName(), element.getPackageName(),
+                    element.getMembersNumber(), element.getUndocumentedMembers(),
+                    element.getDocumentedMembers(), element.getDocumentedMembersPercent());
+        }
+    }
+
     private void exportMembersDocStatsSummary(final MembersDocStats membersDocStats, final int indentLevel) {
         exportMembersDocStatsSummary(membersDocStats, indentLevel, "","");
     }
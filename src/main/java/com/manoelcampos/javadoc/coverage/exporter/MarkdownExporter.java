@@ -0,0 +1,356 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.exporter;
+
+import com.manoelcampos.javadoc.coverage.CoverageDoclet;
+import com.manoelcampos.javadoc.coverage.Utils;
+import com.manoelcampos.javadoc.coverage.history.CoverageHistory;
+import com.manoelcampos.javadoc.coverage.history.HistoryRecord;
+import com.manoelcampos.javadoc.coverage.stats.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Exports a short JavaDoc coverage report in Markdown, to be posted as a pull request comment
+ * or a CI job summary, which have a maximum size.
+ *
+ * <p>The report has the following sections, from the highest to the lowest priority:
+ * a summary table with the coverage of each kind of element, the worst documented classes and
+ * the packages whose coverage changed since the previous run recorded into the {@link CoverageHistory}
+ * (if the {@link CoverageDoclet#HISTORY_OPTION} is given).
+ * The report is written row by row while counting its size in UTF-8 bytes. When the next row doesn't fit into
+ * the {@link CoverageDoclet#MAX_BYTES_OPTION}, the current section is closed with a note about the omitted rows
+ * and the lower priority sections are omitted, so that the report always ends cleanly.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public class MarkdownExporter extends AbstractDataExporter {
+    /**
+     * The default maximum size in bytes of the report, which is the maximum size of a GitHub comment.
+     */
+    public static final long DEFAULT_MAX_BYTES = 65536;
+
+    /**
+     * The number of worst documented classes listed if the {@link CoverageDoclet#TOP_OPTION} isn't given.
+     */
+    private static final int DEFAULT_WORST_CLASSES = 10;
+
+    /**
+     * The minimum difference between the coverage percentages of a package in two runs to consider it changed.
+     */
+    private static final double MIN_DELTA = 0.005;
+
+    /**
+     * The maximum size of the note added when rows are omitted, which is reserved from the size available for rows.
+     */
+    private static final int OMITTED_NOTE_SIZE = 64;
+
+    private final long maxBytes;
+
+    /**
+     * The sections of the report, in the order they are written, which is also their priority order.
+     */
+    private final List<Section> sections = new ArrayList<>(3);
+
+    private long bytesWritten;
+    private boolean truncated;
+
+    /**
+     * A section of the report, containing a title, the header of a table and its rows.
+     * Rows are kept just until their size reaches the report's maximum size, since the next ones would never be written.
+     */
+    private final class Section {
+        private final String title;
+        private final String tableHeader;
+        private final List<String> rows = new ArrayList<>();
+        private long rowsBytes;
+        private int omittedRows;
+
+        /**
+         * The text written instead of the table when the section has no rows.
+         */
+        private String emptyText;
+
+        private Section(final String title, final String tableHeader, final String emptyText) {
+            this.title = "### " + title + "\n\n";
+            this.tableHeader = tableHeader;
+            this.emptyText = emptyText;
+        }
+
+        private void addRow(final String row) {
+            if (rowsBytes > maxBytes) {
+                omittedRows++;
+                return;
+            }
+
+            rows.add(row);
+            rowsBytes += utf8Length(row);
+        }
+    }
+
+    /**
+     * Instantiates an exporter to generate the JavaDoc coverage report as a Markdown file.
+     *
+     * @param doclet the {@link CoverageDoclet} which computes the JavaDoc coverage statistics.
+     */
+    public MarkdownExporter(final CoverageDoclet doclet) {
+        super(doclet, ".md");
+        final String[] maxBytesOption = doclet.getOptionValues(CoverageDoclet.MAX_BYTES_OPTION);
+        this.maxBytes = maxBytesOption.length > 1 ? Long.parseLong(maxBytesOption[1]) : DEFAULT_MAX_BYTES;
+    }
+
+    @Override
+    protected void header() {
+        sections.clear();
+        bytesWritten = 0;
+        truncated = false;
+    }
+
+    @Override
+    protected void exportClassesDocStats() {
+        final Section section = new Section(
+            "Worst Documented Classes",
+            "| Class | Documentable | Documented | Coverage |\n|---|---:|---:|---:|\n",
+            "All classes are fully documented.\n");
+        final CoverageRanking ranking = getStats().getRanking();
+        if (ranking == null) {
+            final List<ClassDocStats> worstClasses = getStats().getClassesDocStats().getClassesList().stream()
+                .filter(classStats -> classStats.getUndocumentedMembers() > 0)
+                .sorted(Comparator.comparingDouble(ClassDocStats::getDocumentedMembersPercent)
+                                  .thenComparing(ClassDocStats::getQualifiedName))
+                .limit(DEFAULT_WORST_CLASSES)
+                .collect(toList());
+            worstClasses.forEach(classStats -> section.addRow(formatRow(classStats.getQualifiedName(), classStats)));
+        } else {
+            ranking.getWorstClasses().forEach(element -> section.addRow(formatRow(element.getName(), element)));
+        }
+
+        sections.add(section);
+    }
+
+    /**
+     * Adds the section of the packages whose coverage changed since the previous run, if the history is enabled.
+     * Since the current run is appended to the history before the report is built, the previous run
+     * is the one before the last.
+     */
+    @Override
+    protected void exportPackagesDocStats() {
+        final CoverageHistory history = getDoclet().getHistory();
+        if (history == null) {
+            return;
+        }
+
+        final List<HistoryRecord> runs;
+        try {
+            runs = history.readLastRuns(2);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final Section section = new Section(
+            "Changed Packages",
+            "| Package | Previous | Current | Change |\n|---|---:|---:|---:|\n",
+            "The coverage of the packages didn't change since the previous run.\n");
+        if (runs.size() > 1) {
+            addPackageDeltas(section, runs.get(runs.size() - 2));
+        } else {
+            section.emptyText = "There is no previous run into the coverage history to compare with.\n";
+        }
+
+        sections.add(section);
+    }
+
+    /**
+     * Adds a row for each package whose coverage changed since a previous run,
+     * from the largest decrease to the largest increase, including packages which were added or removed.
+     *
+     * @param section the section to add the rows to
+     * @param previousRun the run to compare the current coverage with
+     */
+    private void addPackageDeltas(final Section section, final HistoryRecord previousRun) {
+        final Map<String, Double> previous = new HashMap<>();
+        previousRun.getPackages().forEach(record -> previous.put(record.getName(), record.getDocumentedMembersPercent()));
+
+        final Map<String, Double> current = new HashMap<>();
+        final ScoringModel scoringModel = getStats().getScoringModel();
+        getStats().getPackagesCoverageTotals().forEach((name, totals) -> current.put(name, scoringModel.score(totals)));
+
+        final Set<String> names = new HashSet<>(previous.keySet());
+        names.addAll(current.keySet());
+        final List<String> changed = names.stream()
+            .filter(name -> Math.abs(current.getOrDefault(name, 0.0) - previous.getOrDefault(name, 0.0)) >= MIN_DELTA ||
+                            current.containsKey(name) != previous.containsKey(name))
+            .sorted(Comparator.<String>comparingDouble(name -> current.getOrDefault(name, 0.0) - previous.getOrDefault(name, 0.0))
+                              .thenComparing(Comparator.naturalOrder()))
+            .collect(toList());
+
+        for (final String name : changed) {
+            final Double before = previous.get(name);
+            final Double after = current.get(name);
+            section.addRow(String.format(
+                Locale.ROOT, "| %s | %s | %s | %+.2f%% |\n",
+                formatName(name.isEmpty() ? "(default package)" : name), formatPercent(before), formatPercent(after),
+                (after == null ? 0 : after) - (before == null ? 0 : before)));
+        }
+    }
+
+    /**
+     * The worst documented classes are already listed by {@link #exportClassesDocStats()}
+     * and other rankings are left out to keep the report short.
+     */
+    @Override
+    protected void exportRankedElements(final String title, final List<RankedElement> elements) {/**/}
+
+    /**
+     * Adds the summary section, which is the first one, with the coverage of each kind of element.
+     */
+    @Override
+    protected void exportProjectDocumentationCoverageSummary() {
+        final Section section = new Section(
+            String.format(Locale.ROOT, "JavaDoc Coverage: %.2f%%", getStats().getDocumentedMembersPercent()),
+            "| Element | Documentable | Documented | Coverage |\n|---|---:|---:|---:|\n",
+            "");
+        final CoverageTotals totals = getStats().getCoverageTotals();
+        for (final ElementKind kind : ElementKind.values()) {
+            final long members = totals.getMembersNumber(kind);
+            if (members > 0) {
+                section.addRow(String.format(
+                    Locale.ROOT, "| %s | %d | %d | %.2f%% |\n", kind.getOptionName(), members,
+                    totals.getDocumentedMembers(kind), Utils.computePercentage(totals.getDocumentedMembers(kind), members)));
+            }
+        }
+
+        section.addRow(String.format(
+            Locale.ROOT, "| **Poorly documented** | | %d | |\n", totals.getPoorlyDocumentedMembers()));
+        sections.add(0, section);
+    }
+
+    /**
+     * Writes the sections in priority order, stopping once the maximum size is reached.
+     */
+    @Override
+    protected void footer() {
+        for (final Section section : sections) {
+            if (!writeSection(section)) {
+                truncated = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes a section, omitting the rows which don't fit into the maximum size of the report.
+     *
+     * @param section the section to write
+     * @return true if the entire section was written, false if some rows or the entire section were omitted
+     */
+    private boolean writeSection(final Section section) {
+        final String separator = bytesWritten == 0 ? "" : "\n";
+        if (section.rows.isEmpty() && section.omittedRows == 0) {
+            return write(separator + section.title + section.emptyText, 0);
+        }
+
+        if (!write(separator + section.title + section.tableHeader, OMITTED_NOTE_SIZE)) {
+            return false;
+        }
+
+        int written = 0;
+        for (final String row : section.rows) {
+            if (!write(row, OMITTED_NOTE_SIZE)) {
+                break;
+            }
+
+            written++;
+        }
+
+        final int omitted = section.rows.size() - written + section.omittedRows;
+        if (omitted > 0) {
+            write(String.format("\n_%d more %s omitted to fit the report size._\n", omitted, omitted == 1 ? "row" : "rows"), 0);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes a text if it fits into the maximum size of the report.
+     *
+     * @param text the text to write
+     * @param reserved the number of bytes which must be left available after the text is written
+     * @return true if the text was written, false otherwise
+     */
+    private boolean write(final String text, final int reserved) {
+        final long length = utf8Length(text);
+        if (bytesWritten + length + reserved > maxBytes) {
+            return false;
+        }
+
+        getWriter().append(text);
+        bytesWritten += length;
+        return true;
+    }
+
+    private static String formatRow(final String name, final DocStats stats) {
+        return String.format(
+            Locale.ROOT, "| %s | %d | %d | %.2f%% |\n", formatName(name),
+            stats.getMembersNumber(), stats.getDocumentedMembers(), stats.getDocumentedMembersPercent());
+    }
+
+    /**
+     * Formats the name of an element as code, so that Markdown chars into it aren't interpreted.
+     */
+    private static String formatName(final String name) {
+        return "`" + name.replace("|", "\\|") + "`";
+    }
+
+    private static String formatPercent(final Double percent) {
+        return percent == null ? "-" : String.format(Locale.ROOT, "%.2f%%", percent);
+    }
+
+    /**
+     * Computes the number of bytes of a text encoded in UTF-8, without encoding it.
+     */
+    private static long utf8Length(final CharSequence text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+
+    @Override
+    public void afterBuild() {
+        System.out.printf(
+            "\nJavaDoc Coverage report saved to %s (%d bytes%s)\n",
+            getFile().getAbsolutePath(), bytesWritten, truncated ? ", truncated" : "");
+    }
+}
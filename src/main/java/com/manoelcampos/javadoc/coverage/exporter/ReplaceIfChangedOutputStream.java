@@ -0,0 +1,164 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.exporter;
+
+import com.manoelcampos.javadoc.coverage.Utils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * An {@link OutputStream} to write a report file which is replaced only if its content changed,
+ * so that the file's modification time is kept when the report is the same,
+ * avoiding downstream caches and file watchers to be triggered.
+ *
+ * <p>The content is written to a temporary file at the same directory,
+ * while its SHA-256 digest is computed. After all the content is written, {@link #commit()} must be called.
+ * When the stream is closed, the digest is compared with
+ * the digest of the existing file (which is just computed if both files have the same size).
+ * If they differ, the temporary file is atomically moved to the target file,
+ * otherwise the temporary file is deleted.
+ * If the stream wasn't committed or an error happened while writing, the temporary file is just deleted,
+ * so that a partial content never replaces the existing file.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class ReplaceIfChangedOutputStream extends FilterOutputStream {
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final Path tempFile;
+    private final MessageDigest digest;
+    private boolean closed;
+    private boolean committed;
+    private boolean failed;
+
+    /**
+     * Instantiates a stream to write a file, creating the temporary file where the content is written to.
+     *
+     * @param file the file to write
+     * @throws IOException when the temporary file cannot be created
+     */
+    public ReplaceIfChangedOutputStream(final Path file) throws IOException {
+        super(null);
+        this.file = file;
+        this.tempFile = Utils.createTempFileFor(file);
+        this.digest = newDigest();
+        this.out = new DigestOutputStream(Files.newOutputStream(tempFile), digest);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            /*Every Java platform is required to support SHA-256.*/
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        try {
+            out.write(b);
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        try {
+            out.write(b, off, len);
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Marks that all the content was written, so that the target file is replaced
+     * when the stream is closed, if the content changed.
+     * The writers wrapping this stream may still be holding buffered content, which is written when they are closed.
+     */
+    public void commit() {
+        committed = true;
+    }
+
+    /**
+     * Closes the temporary file and moves it to the target file if the stream was committed
+     * and the content changed. Otherwise, the temporary file is just deleted.
+     *
+     * @throws IOException when the files cannot be compared or moved
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        try {
+            super.close();
+            if (committed && !failed && isChanged()) {
+                move();
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Checks if the written content is different from the content of the existing file.
+     *
+     * @return true if the file doesn't exist or its content is different, false otherwise
+     */
+    private boolean isChanged() throws IOException {
+        if (!Files.exists(file) || Files.size(file) != Files.size(tempFile)) {
+            return true;
+        }
+
+        final MessageDigest existingDigest = newDigest();
+        final byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read = in.read(buffer); read > -1; read = in.read(buffer)) {
+                existingDigest.update(buffer, 0, read);
+            }
+        }
+
+        return !Arrays.equals(digest.digest(), existingDigest.digest());
+    }
+
+    private void move() throws IOException {
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
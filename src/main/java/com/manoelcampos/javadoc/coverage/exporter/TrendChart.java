@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.exporter;
+
+import com.manoelcampos.javadoc.coverage.Utils;
+import com.manoelcampos.javadoc.coverage.history.HistoryRecord;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders the trend of the project JavaDoc coverage across multiple runs as an inline SVG chart,
+ * so that the chart is generated entirely offline, without any script or external resource.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see com.manoelcampos.javadoc.coverage.history.CoverageHistory
+ * @since 1.3.0
+ */
+final class TrendChart {
+    private static final int WIDTH = 600;
+    private static final int HEIGHT = 160;
+    private static final int MARGIN = 30;
+
+    /**
+     * A private constructor to avoid class instantiation.
+     */
+    private TrendChart() {}
+
+    /**
+     * Renders the coverage trend chart.
+     *
+     * @param runs the runs to include into the chart, in the order they happened
+     * @return the SVG element for the chart or an empty String if there are no runs
+     */
+    static String toSvg(final List<HistoryRecord> runs) {
+        if (runs.isEmpty()) {
+            return "";
+        }
+
+        final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.ENGLISH);
+        final long firstTime = runs.get(0).getTimestamp();
+        final long timeSpan = runs.get(runs.size() - 1).getTimestamp() - firstTime;
+        final StringBuilder points = new StringBuilder(runs.size() * 16);
+        final StringBuilder markers = new StringBuilder(runs.size() * 128);
+        for (int i = 0; i < runs.size(); i++) {
+            final HistoryRecord run = runs.get(i);
+            /*Places runs by time, or evenly if they all happened at the same time.*/
+            final double position = timeSpan > 0 ? (run.getTimestamp() - firstTime) / (double) timeSpan : (runs.size() > 1 ? i / (double) (runs.size() - 1) : 0.5);
+            final double x = MARGIN + position * (WIDTH - 2 * MARGIN);
+            final double y = HEIGHT - MARGIN - run.getDocumentedMembersPercent() / 100.0 * (HEIGHT - 2 * MARGIN);
+            points.append(String.format(Locale.ENGLISH, "%.1f,%.1f ", x, y));
+            markers.append(String.format(
+                    Locale.ENGLISH, "<circle cx='%.1f' cy='%.1f' r='3' fill='#337ab7'><title>%s %s: %.2f%%</title></circle>",
+                    x, y, dateFormat.format(new Date(run.getTimestamp())), Utils.escapeXml(run.getName()), run.getDocumentedMembersPercent()));
+        }
+
+        final int bottom = HEIGHT - MARGIN;
+        return String.format(Locale.ENGLISH,
+                "<svg xmlns='http://www.w3.org/2000/svg' width='%d' height='%d' role='img' aria-label='JavaDoc Coverage Trend'>" +
+                "<line x1='%d' y1='%d' x2='%d' y2='%d' stroke='#999'/>" +
+                "<line x1='%d' y1='%d' x2='%d' y2='%d' stroke='#999'/>" +
+                "<text x='2' y='%d' font-size='10'>100%%</text><text x='2' y='%d' font-size='10'>0%%</text>" +
+                "<text x='%d' y='%d' font-size='10'>%s</text><text x='%d' y='%d' font-size='10' text-anchor='end'>%s</text>" +
+                "<polyline points='%s' fill='none' stroke='#337ab7' stroke-width='2'/>%s</svg>",
+                WIDTH, HEIGHT,
+                MARGIN, MARGIN, MARGIN, bottom,
+                MARGIN, bottom, WIDTH - MARGIN, bottom,
+                MARGIN + 4, bottom + 4,
+                MARGIN, bottom + 16, dateFormat.format(new Date(firstTime)),
+                WIDTH - MARGIN, bottom + 16, dateFormat.format(new Date(firstTime + timeSpan)),
+                points.toString().trim(), markers);
+    }
+}
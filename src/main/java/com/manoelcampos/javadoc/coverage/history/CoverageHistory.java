@@ -0,0 +1,515 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.history;
+
+import com.manoelcampos.javadoc.coverage.stats.CoverageTotals;
+import com.manoelcampos.javadoc.coverage.stats.JavaDocsStats;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * An append-only history of the JavaDoc coverage of a project across multiple runs of the Doclet.
+ *
+ * <p>The history is stored into a data file of fixed-size records.
+ * Each run appends a run record with the timestamp, commit id and project totals,
+ * followed by a record for each analysed package. Package names are stored just once
+ * into a names file (one name per line), which package records refer to by line number.
+ * A sparse index file stores the timestamp and position of some run records,
+ * so that the records from a time range can be read without scanning the whole data file.
+ * Since each run record stores its number of packages, the package records can be skipped
+ * when just the project totals are needed.</p>
+ *
+ * <p>Records are never changed after written. If a run is interrupted while writing,
+ * the incomplete record at the end of the data file is discarded by the next run.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class CoverageHistory {
+    /**
+     * The size in bytes of each record into the data file.
+     */
+    private static final int RECORD_SIZE = 80;
+
+    /**
+     * The maximum number of bytes of the commit id stored into a run record,
+     * which fits a SHA-1 hash in hexadecimal format.
+     */
+    private static final int COMMIT_ID_SIZE = 40;
+
+    /**
+     * The size in bytes of the fields at the beginning of every record:
+     * type, an int value (the number of packages of a run or the name id of a package),
+     * timestamp, number of members, number of documented members and coverage percentage.
+     */
+    private static final int COMMON_FIELDS_SIZE = 40;
+
+    private static final byte RUN = 'R';
+    private static final byte PACKAGE = 'P';
+
+    /**
+     * The size in bytes of each index entry, containing the timestamp and the position of a run record.
+     */
+    private static final int INDEX_ENTRY_SIZE = 16;
+
+    /**
+     * The minimum number of bytes of the data file between two indexed run records.
+     */
+    private static final long INDEX_SPACING = 64L * RECORD_SIZE;
+
+    /**
+     * The number of records read at once when scanning the data file.
+     */
+    private static final int RECORDS_PER_READ = 256;
+
+    private final Path dataFile;
+    private final Path namesFile;
+    private final Path indexFile;
+
+    /**
+     * Instantiates an object to read and append records to the coverage history.
+     * The names and index files are stored at the same directory of the data file,
+     * with extensions ".names" and ".idx" appended to its name.
+     *
+     * @param dataFile the path of the history data file, which is created if it doesn't exist
+     */
+    public CoverageHistory(final Path dataFile) {
+        this.dataFile = dataFile.toAbsolutePath();
+        this.namesFile = this.dataFile.resolveSibling(dataFile.getFileName() + ".names");
+        this.indexFile = this.dataFile.resolveSibling(dataFile.getFileName() + ".idx");
+    }
+
+    /**
+     * Appends the JavaDoc coverage of a run to the history.
+     *
+     * @param timestamp the time the run happened, in milliseconds since the epoch
+     * @param commitId the id of the commit analysed in the run, or an empty string if unknown
+     * @param stats the JavaDoc coverage statistics computed in the run
+     * @throws IOException when the history files cannot be written
+     */
+    public void append(final long timestamp, final String commitId, final JavaDocsStats stats) throws IOException {
+        final Map<String, CoverageTotals> packagesTotals = new TreeMap<>(stats.getPackagesCoverageTotals());
+        final Map<String, Integer> nameIds = appendNames(packagesTotals.keySet());
+
+        final ByteBuffer buffer = ByteBuffer.allocate((packagesTotals.size() + 1) * RECORD_SIZE);
+        putRecord(buffer, RUN, packagesTotals.size(), timestamp, stats.getMembersNumber(), stats.getDocumentedMembers(), stats.getDocumentedMembersPercent());
+        final byte[] commitBytes = commitId.getBytes(StandardCharsets.US_ASCII);
+        buffer.put(commitBytes, 0, Math.min(commitBytes.length, COMMIT_ID_SIZE));
+        buffer.position(RECORD_SIZE);
+
+        for (final Map.Entry<String, CoverageTotals> entry : packagesTotals.entrySet()) {
+            final CoverageTotals totals = entry.getValue();
+            putRecord(buffer, PACKAGE, nameIds.get(entry.getKey()), timestamp,
+                      totals.getMembersNumber(), totals.getDocumentedMembers(),
+                      stats.getScoringModel().score(totals));
+            buffer.position(buffer.position() + RECORD_SIZE - COMMON_FIELDS_SIZE);
+        }
+
+        buffer.flip();
+        final long position;
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            /*Discards an incomplete record written by an interrupted run.*/
+            position = channel.size() - channel.size() % RECORD_SIZE;
+            channel.truncate(position);
+            writeFully(channel, buffer, position);
+        }
+
+        appendIndexEntry(timestamp, position);
+    }
+
+    /**
+     * Puts the fields which are common for all kinds of records into a buffer.
+     *
+     * @see #COMMON_FIELDS_SIZE
+     */
+    private static void putRecord(
+        final ByteBuffer buffer, final byte type, final int intValue, final long timestamp,
+        final long membersNumber, final long documentedMembers, final double percent)
+    {
+        buffer.put(type).put((byte)0).putShort((short)0).putInt(intValue)
+              .putLong(timestamp).putLong(membersNumber).putLong(documentedMembers).putDouble(percent);
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Appends the package names which aren't in the names file yet.
+     *
+     * @param packageNames the names of the packages of the current run
+     * @return a Map where each key is a package name and each value is its id (its line into the names file)
+     * @throws IOException when the names file cannot be read or written
+     */
+    private Map<String, Integer> appendNames(final Set<String> packageNames) throws IOException {
+        final List<String> names = readNames();
+        final Map<String, Integer> nameIds = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            nameIds.put(names.get(i), i);
+        }
+
+        final List<String> newNames = new ArrayList<>();
+        for (final String name : packageNames) {
+            if (!nameIds.containsKey(name)) {
+                nameIds.put(name, names.size() + newNames.size());
+                newNames.add(name);
+            }
+        }
+
+        if (!newNames.isEmpty()) {
+            Files.write(namesFile, newNames, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        return nameIds;
+    }
+
+    private List<String> readNames() throws IOException {
+        return Files.exists(namesFile) ? Files.readAllLines(namesFile, StandardCharsets.UTF_8) : new ArrayList<>();
+    }
+
+    /**
+     * Appends an entry to the sparse index if the run record is far enough from the last indexed one.
+     *
+     * @param timestamp the time of the run
+     * @param position the position of the run record into the data file
+     * @throws IOException when the index file cannot be read or written
+     */
+    private void appendIndexEntry(final long timestamp, final long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long entries = channel.size() / INDEX_ENTRY_SIZE;
+            if (entries > 0 && position - readIndexEntry(channel, entries - 1)[1] < INDEX_SPACING) {
+                return;
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate(INDEX_ENTRY_SIZE).putLong(timestamp).putLong(position);
+            buffer.flip();
+            writeFully(channel, buffer, entries * INDEX_ENTRY_SIZE);
+        }
+    }
+
+    /**
+     * Reads an index entry.
+     *
+     * @param channel the index file channel
+     * @param entry the number of the entry to read
+     * @return an array containing the timestamp and position of the indexed run record
+     * @throws IOException when the index file cannot be read
+     */
+    private static long[] readIndexEntry(final FileChannel channel, final long entry) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        readFully(channel, buffer, entry * INDEX_ENTRY_SIZE);
+        return new long[]{buffer.getLong(), buffer.getLong()};
+    }
+
+    /**
+     * Reads bytes from a channel until the buffer is full or the end of the channel is reached,
+     * then flips the buffer so that the read bytes can be got.
+     *
+     * @param channel the channel to read from
+     * @param buffer the buffer to store the read bytes
+     * @param position the position into the channel to start reading
+     * @throws IOException when the channel cannot be read
+     */
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        final int start = buffer.position();
+        while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position() - start) >= 0) {
+            /*keeps reading until the buffer is full*/
+        }
+
+        buffer.flip();
+    }
+
+    /**
+     * Reads the runs which happened in a given time range.
+     * Records before the time range are skipped using the sparse index.
+     *
+     * @param from the beginning of the time range (inclusive), in milliseconds since the epoch
+     * @param to the end of the time range (inclusive), in milliseconds since the epoch
+     * @return the list of run records in the time range, in the order they were appended,
+     *         each one including its package records
+     * @throws IOException when the history files cannot be read
+     * @see #readRuns(long, long)
+     */
+    public List<HistoryRecord> read(final long from, final long to) throws IOException {
+        return read(findStartPosition(from), from, to, true);
+    }
+
+    /**
+     * Reads just the project totals of the runs which happened in a given time range,
+     * such as to plot the coverage trend.
+     * Besides skipping the records before the time range using the sparse index,
+     * the package records of each run are skipped using the number of packages stored into the run record,
+     * so that the reading time doesn't depend on the number of packages.
+     *
+     * @param from the beginning of the time range (inclusive), in milliseconds since the epoch
+     * @param to the end of the time range (inclusive), in milliseconds since the epoch
+     * @return the list of run records in the time range, in the order they were appended,
+     *         without their package records
+     * @throws IOException when the history files cannot be read
+     */
+    public List<HistoryRecord> readRuns(final long from, final long to) throws IOException {
+        return read(findStartPosition(from), from, to, false);
+    }
+
+    /**
+     * Reads the last runs appended to the history, such as to compare the current run with the previous one.
+     * The runs are found starting from the last indexed run record and going back
+     * through the sparse index just while there aren't enough runs,
+     * so that the beginning of the data file isn't read.
+     *
+     * @param count the maximum number of runs to read
+     * @return the list of the last run records, in the order they were appended,
+     *         each one including its package records
+     * @throws IOException when the history files cannot be read
+     */
+    public List<HistoryRecord> readLastRuns(final int count) throws IOException {
+        if (count <= 0 || !Files.exists(dataFile)) {
+            return Collections.emptyList();
+        }
+
+        return read(findLastRunsPosition(count), Long.MIN_VALUE, Long.MAX_VALUE, true);
+    }
+
+    /**
+     * Finds the position of the first one of the last runs into the data file.
+     *
+     * @param count the number of last runs to find
+     * @return the position of the first one of such runs, or the position of the first run
+     *         if there are fewer runs than the given number
+     * @throws IOException when the history files cannot be read
+     */
+    private long findLastRunsPosition(final int count) throws IOException {
+        try (FileChannel dataChannel = FileChannel.open(dataFile, StandardOpenOption.READ);
+             FileChannel indexChannel = Files.exists(indexFile) ? FileChannel.open(indexFile, StandardOpenOption.READ) : null)
+        {
+            final RecordCursor cursor = new RecordCursor(dataChannel, 2);
+            for (long entry = indexChannel == null ? -1 : indexChannel.size() / INDEX_ENTRY_SIZE - 1; ; entry--) {
+                final long start = entry < 0 ? 0 : readIndexEntry(indexChannel, entry)[1];
+                final List<Long> positions = new ArrayList<>();
+                for (long position = start; cursor.read(position); position = nextRunPosition(cursor, position)) {
+                    positions.add(position);
+                }
+
+                if (positions.size() >= count || entry < 0) {
+                    return positions.isEmpty() ? start : positions.get(Math.max(0, positions.size() - count));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the runs which happened in a given time range, starting from a given position into the data file.
+     *
+     * @param start the position of a run record to start reading from
+     * @param from the beginning of the time range (inclusive), in milliseconds since the epoch
+     * @param to the end of the time range (inclusive), in milliseconds since the epoch
+     * @param includePackages true to read the package records of each run, false to skip them
+     * @return the list of run records in the time range, in the order they were appended
+     * @throws IOException when the history files cannot be read
+     */
+    private List<HistoryRecord> read(final long start, final long from, final long to, final boolean includePackages) throws IOException {
+        if (!Files.exists(dataFile)) {
+            return Collections.emptyList();
+        }
+
+        final List<String> names = includePackages ? readNames() : Collections.emptyList();
+        final List<HistoryRecord> runs = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            /*When package records are skipped, just the last package record of a run and the next run record are read at once.*/
+            final RecordCursor cursor = new RecordCursor(channel, includePackages ? RECORDS_PER_READ : 2);
+            HistoryRecord run = null;
+            for (long position = start; cursor.read(position); ) {
+                if (cursor.type == RUN) {
+                    if (cursor.timestamp > to) {
+                        break;
+                    }
+
+                    run = null;
+                    if (cursor.timestamp >= from) {
+                        run = cursor.newRecord("Run", cursor.readCommitId());
+                        runs.add(run);
+                    }
+
+                    if (!includePackages) {
+                        position = nextRunPosition(cursor, position);
+                        continue;
+                    }
+                } else if (cursor.type == PACKAGE && run != null) {
+                    run.addPackage(cursor.newRecord("Package", cursor.intValue < names.size() ? names.get(cursor.intValue) : ""));
+                }
+
+                position += RECORD_SIZE;
+            }
+        }
+
+        return runs;
+    }
+
+    /**
+     * Gets the position of the run record following the one the cursor has just read.
+     * The package records of the run are skipped if the last one is where the number of packages
+     * stored into the run record says. Otherwise, the run was interrupted before writing all its packages
+     * and the next run record is searched record by record.
+     *
+     * @param cursor the cursor which has just read a run record
+     * @param position the position of such a run record
+     * @return the position of the next run record or a position after the end of the data file if there is no such a record
+     * @throws IOException when the data file cannot be read
+     */
+    private static long nextRunPosition(final RecordCursor cursor, final long position) throws IOException {
+        final long timestamp = cursor.timestamp;
+        final long lastPackage = position + cursor.intValue * (long) RECORD_SIZE;
+        if (lastPackage == position || (cursor.read(lastPackage) && cursor.type == PACKAGE && cursor.timestamp == timestamp)) {
+            return lastPackage + RECORD_SIZE;
+        }
+
+        long next = position + RECORD_SIZE;
+        while (cursor.read(next) && cursor.type != RUN) {
+            next += RECORD_SIZE;
+        }
+
+        return next;
+    }
+
+    /**
+     * Finds the position into the data file to start reading records from a given time,
+     * using a binary search into the sparse index.
+     *
+     * @param from the beginning of the time range to read
+     * @return the position of the last indexed run before the given time, or 0 if there is no such run
+     * @throws IOException when the index file cannot be read
+     */
+    private long findStartPosition(final long from) throws IOException {
+        if (!Files.exists(indexFile)) {
+            return 0;
+        }
+
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long low = 0;
+            long high = channel.size() / INDEX_ENTRY_SIZE - 1;
+            long position = 0;
+            while (low <= high) {
+                final long middle = (low + high) >>> 1;
+                final long[] entry = readIndexEntry(channel, middle);
+                if (entry[0] < from) {
+                    position = entry[1];
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+
+            return position;
+        }
+    }
+
+    /**
+     * Reads records from the data file, keeping a window of consecutive records into a buffer,
+     * so that scanning the file takes a single read for many records,
+     * while skipping records just reads the ones which are needed.
+     * The fields common for all kinds of records are got by reading a record
+     * and are kept until another one is read.
+     */
+    private static final class RecordCursor {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        /**
+         * The position into the data file after the last complete record.
+         */
+        private final long end;
+
+        /**
+         * The position into the data file of the first record into the buffer, or -1 if nothing was read yet.
+         */
+        private long bufferStart = -1;
+
+        private byte type;
+        private int intValue;
+        private long timestamp;
+        private long membersNumber;
+        private long documentedMembers;
+        private double percent;
+
+        private RecordCursor(final FileChannel channel, final int recordsPerRead) throws IOException {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(recordsPerRead * RECORD_SIZE);
+            this.end = channel.size() - channel.size() % RECORD_SIZE;
+        }
+
+        /**
+         * Reads the common fields of the record at a given position,
+         * just reading from the data file if the record isn't into the buffer.
+         *
+         * @param position the position of the record into the data file
+         * @return true if the record was read, false if there is no complete record at such a position
+         * @throws IOException when the data file cannot be read
+         */
+        private boolean read(final long position) throws IOException {
+            if (position + RECORD_SIZE > end) {
+                return false;
+            }
+
+            if (bufferStart < 0 || position < bufferStart || position + RECORD_SIZE > bufferStart + buffer.limit()) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                readFully(channel, buffer, position);
+                bufferStart = position;
+                if (buffer.limit() < RECORD_SIZE) {
+                    return false;
+                }
+            }
+
+            buffer.position((int) (position - bufferStart));
+            type = buffer.get();
+            buffer.get();
+            buffer.getShort();
+            intValue = buffer.getInt();
+            timestamp = buffer.getLong();
+            membersNumber = buffer.getLong();
+            documentedMembers = buffer.getLong();
+            percent = buffer.getDouble();
+            return true;
+        }
+
+        /**
+         * Reads the commit id stored after the common fields of the run record just read.
+         */
+        private String readCommitId() {
+            final byte[] bytes = new byte[COMMIT_ID_SIZE];
+            buffer.get(bytes);
+            int length = 0;
+            while (length < bytes.length && bytes[length] != 0) {
+                length++;
+            }
+
+            return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+        }
+
+        private HistoryRecord newRecord(final String type, final String name) {
+            return new HistoryRecord(type, name, timestamp, membersNumber, documentedMembers, percent);
+        }
+    }
+}
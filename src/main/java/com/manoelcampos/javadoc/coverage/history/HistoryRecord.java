@@ -0,0 +1,125 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.history;
+
+import com.manoelcampos.javadoc.coverage.stats.DocStats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A record read from the {@link CoverageHistory}, which represents either
+ * the JavaDoc coverage of an entire project in a given run or the coverage of a package in that run.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class HistoryRecord implements DocStats {
+    private final String type;
+    private final String name;
+    private final long timestamp;
+    private final long membersNumber;
+    private final long documentedMembers;
+    private final double documentedMembersPercent;
+
+    /**
+     * The records of the packages analysed in a run,
+     * which is always empty for package records.
+     */
+    private final List<HistoryRecord> packages;
+
+    /**
+     * Instantiates a history record.
+     *
+     * @param type the type of the record, either "Run" or "Package"
+     * @param name the commit id for a run or the package name
+     * @param timestamp the time the run happened, in milliseconds since the epoch
+     * @param membersNumber the number of documentable members
+     * @param documentedMembers the number of documented members
+     * @param documentedMembersPercent the coverage percentage computed when the run happened
+     */
+    HistoryRecord(
+        final String type, final String name, final long timestamp,
+        final long membersNumber, final long documentedMembers, final double documentedMembersPercent)
+    {
+        this.type = type;
+        this.name = name;
+        this.timestamp = timestamp;
+        this.membersNumber = membersNumber;
+        this.documentedMembers = documentedMembers;
+        this.documentedMembersPercent = documentedMembersPercent;
+        this.packages = "Run".equals(type) ? new ArrayList<>() : Collections.emptyList();
+    }
+
+    void addPackage(final HistoryRecord packageRecord) {
+        packages.add(packageRecord);
+    }
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the commit id for a run record or the package name for a package record.
+     *
+     * @return the record name (which may be empty for runs without a commit id)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the time the run happened.
+     *
+     * @return the timestamp in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public long getMembersNumber() {
+        return membersNumber;
+    }
+
+    @Override
+    public long getDocumentedMembers() {
+        return documentedMembers;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The percentage is the one computed when the run happened,
+     * according to the scoring model used at that time.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public double getDocumentedMembersPercent() {
+        return documentedMembersPercent;
+    }
+
+    /**
+     * Gets the records of the packages analysed in a run.
+     *
+     * @return a read-only List of package records, which is empty for package records
+     */
+    public List<HistoryRecord> getPackages() {
+        return Collections.unmodifiableList(packages);
+    }
+}
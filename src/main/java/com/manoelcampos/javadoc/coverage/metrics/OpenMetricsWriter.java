@@ -0,0 +1,246 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.metrics;
+
+import com.manoelcampos.javadoc.coverage.Utils;
+import com.manoelcampos.javadoc.coverage.stats.ClassDocStats;
+import com.manoelcampos.javadoc.coverage.stats.CoverageTotals;
+import com.manoelcampos.javadoc.coverage.stats.ElementKind;
+import com.manoelcampos.javadoc.coverage.stats.JavaDocsStats;
+import com.manoelcampos.javadoc.coverage.stats.LatencyHistogram;
+import com.manoelcampos.javadoc.coverage.stats.ScoringModel;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the JavaDoc coverage statistics in the
+ * <a href="https://github.com/OpenObservability/OpenMetrics/blob/main/specification/OpenMetrics.md">OpenMetrics text format</a>,
+ * which can be scraped by Prometheus or read by the Micrometer and Prometheus clients,
+ * without adding a dependency on any metrics library.
+ *
+ * <p>To keep the number of time series bounded for large projects,
+ * just the {@link #MAX_PACKAGES} and {@link #MAX_CLASSES} worst documented packages and classes
+ * get their own coverage gauge. The project gauge and the element gauges cover all elements.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class OpenMetricsWriter {
+    /**
+     * The Content-Type of the OpenMetrics text format.
+     */
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    /**
+     * The maximum number of packages to write a coverage gauge for.
+     */
+    public static final int MAX_PACKAGES = 100;
+
+    /**
+     * The maximum number of classes to write a coverage gauge for.
+     */
+    public static final int MAX_CLASSES = 20;
+
+    private static final String PREFIX = "javadoc_coverage_";
+
+    /**
+     * A private constructor to avoid class instantiation.
+     */
+    private OpenMetricsWriter(){/**/}
+
+    /**
+     * Writes the metrics to a file, such as one read by the Prometheus node exporter textfile collector.
+     * The metrics are written into a temporary file which is then moved to the given file,
+     * so that a scraper never reads a partially written file.
+     * The temporary file is created with the default permissions,
+     * so that the metrics file stays readable by a collector running as another user.
+     *
+     * @param file the file to write the metrics to
+     * @param stats the JavaDoc coverage statistics to write
+     * @throws IOException when the file cannot be written
+     */
+    public static void write(final Path file, final JavaDocsStats stats) throws IOException {
+        final Path tempFile = Utils.createTempFileFor(file);
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                write(writer, stats);
+            }
+
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Gets the metrics as a String, such as to be served by an HTTP endpoint.
+     *
+     * @param stats the JavaDoc coverage statistics to write
+     * @return the metrics in the OpenMetrics text format
+     */
+    public static String toString(final JavaDocsStats stats) {
+        final StringBuilder builder = new StringBuilder(4096);
+        try {
+            write(builder, stats);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Writes the metrics to a given output.
+     *
+     * @param out the output to write the metrics to
+     * @param stats the JavaDoc coverage statistics to write
+     * @throws IOException when the metrics cannot be written to the output
+     */
+    public static void write(final Appendable out, final JavaDocsStats stats) throws IOException {
+        writeProjectGauge(out, stats);
+        writePackageGauges(out, stats);
+        writeClassGauges(out, stats);
+        writeElementGauges(out, stats.getCoverageTotals());
+        writeAnalysisHistogram(out, stats.getClassesDocStats().getAnalysisLatency());
+        out.append("# EOF\n");
+    }
+
+    private static void writeProjectGauge(final Appendable out, final JavaDocsStats stats) throws IOException {
+        final String name = PREFIX + "project_ratio";
+        writeMetadata(out, name, "gauge", "JavaDoc coverage of the entire project, according to the scoring model.");
+        out.append(name).append(' ').append(formatRatio(stats.getDocumentedMembersPercent())).append('\n');
+    }
+
+    /**
+     * Writes the coverage of the worst documented packages,
+     * including the package itself and all its classes,
+     * computed by the same scoring model as the project gauge.
+     */
+    private static void writePackageGauges(final Appendable out, final JavaDocsStats stats) throws IOException {
+        final String name = PREFIX + "package_ratio";
+        writeMetadata(out, name, "gauge", "JavaDoc coverage of the " + MAX_PACKAGES + " worst documented packages.");
+
+        final ScoringModel scoringModel = stats.getScoringModel();
+        final List<Map.Entry<String, Double>> packages = new ArrayList<>();
+        for (final Map.Entry<String, CoverageTotals> entry : stats.getPackagesCoverageTotals().entrySet()) {
+            packages.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), scoringModel.score(entry.getValue())));
+        }
+
+        packages.sort(Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        for (final Map.Entry<String, Double> entry : packages.subList(0, Math.min(MAX_PACKAGES, packages.size()))) {
+            out.append(name).append("{package=\"");
+            appendLabelValue(out, entry.getKey());
+            out.append("\"} ").append(formatRatio(entry.getValue())).append('\n');
+        }
+    }
+
+    private static void writeClassGauges(final Appendable out, final JavaDocsStats stats) throws IOException {
+        final String name = PREFIX + "class_ratio";
+        writeMetadata(out, name, "gauge", "JavaDoc coverage of the " + MAX_CLASSES + " worst documented classes.");
+
+        final List<ClassDocStats> classes = new ArrayList<>(stats.getClassesDocStats().getClassesList());
+        classes.sort(Comparator.comparingDouble(ClassDocStats::getDocumentedMembersPercent)
+                               .thenComparing(ClassDocStats::getQualifiedName));
+        for (final ClassDocStats classStats : classes.subList(0, Math.min(MAX_CLASSES, classes.size()))) {
+            out.append(name).append("{class=\"");
+            appendLabelValue(out, classStats.getQualifiedName());
+            out.append("\"} ").append(formatRatio(classStats.getDocumentedMembersPercent())).append('\n');
+        }
+    }
+
+    /**
+     * Writes the number of analysed and documented elements of each kind.
+     * They are gauges rather than counters since they can go down
+     * between runs or after the {@code -serve} mode re-analyses the sources.
+     */
+    private static void writeElementGauges(final Appendable out, final CoverageTotals totals) throws IOException {
+        writeElementGauge(out, "elements", "Documentable elements analysed.", totals, true);
+        writeElementGauge(out, "documented_elements", "Documented elements analysed.", totals, false);
+    }
+
+    private static void writeElementGauge(
+        final Appendable out, final String metric, final String help,
+        final CoverageTotals totals, final boolean members) throws IOException
+    {
+        final String name = PREFIX + metric;
+        writeMetadata(out, name, "gauge", help);
+        for (final ElementKind kind : ElementKind.values()) {
+            final long value = members ? totals.getMembersNumber(kind) : totals.getDocumentedMembers(kind);
+            out.append(name).append("{kind=\"").append(kind.getOptionName()).append("\"} ")
+               .append(Long.toString(value)).append('\n');
+        }
+    }
+
+    private static void writeAnalysisHistogram(final Appendable out, final LatencyHistogram histogram) throws IOException {
+        final String name = PREFIX + "class_analysis_seconds";
+        writeMetadata(out, name, "histogram", "Time to analyse the JavaDoc documentation of each class.");
+        out.append("# UNIT ").append(name).append(" seconds\n");
+        for (int i = 0; i < histogram.getBucketsNumber(); i++) {
+            final double upperBound = histogram.getUpperBound(i);
+            out.append(name).append("_bucket{le=\"")
+               .append(Double.isInfinite(upperBound) ? "+Inf" : formatDouble(upperBound))
+               .append("\"} ").append(Long.toString(histogram.getCumulativeCount(i))).append('\n');
+        }
+
+        out.append(name).append("_count ").append(Long.toString(histogram.getCount())).append('\n');
+        out.append(name).append("_sum ").append(formatDouble(histogram.getSumSeconds())).append('\n');
+    }
+
+    private static void writeMetadata(final Appendable out, final String name, final String type, final String help) throws IOException {
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    }
+
+    /**
+     * Appends a label value, escaping backslashes, double quotes and line feeds as required by the format.
+     */
+    private static void appendLabelValue(final Appendable out, final String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '\\': out.append("\\\\"); break;
+                case '"':  out.append("\\\""); break;
+                case '\n': out.append("\\n"); break;
+                default:   out.append(c);
+            }
+        }
+    }
+
+    /**
+     * Converts a percentage to a ratio between 0 and 1, which is the unit recommended for coverage metrics.
+     */
+    private static String formatRatio(final double percent) {
+        return formatDouble(percent / 100.0);
+    }
+
+    /**
+     * Formats a number without scientific notation, so that small bucket bounds such as 0.0001 are kept readable.
+     */
+    private static String formatDouble(final double value) {
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.metrics;
+
+import com.manoelcampos.javadoc.coverage.stats.CoverageTotals;
+import com.manoelcampos.javadoc.coverage.stats.ElementKind;
+import com.manoelcampos.javadoc.coverage.stats.JavaDocsStats;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the performance of a run of the Doclet, such as elapsed times, throughput and memory usage,
+ * and writes them as a small JSON file, so that the performance of the tool itself can be tracked across runs.
+ *
+ * <p>The measurement starts when the object is created: the peak usage of heap memory pools is reset
+ * and the garbage collection counters are read, so that just the collections during the run are reported.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class RunMetrics {
+    private final long gcCountAtStart;
+    private final long gcMillisAtStart;
+    private final LongAdder bytesWritten = new LongAdder();
+    private long analysisNanos;
+    private long exportNanos;
+    private long writeQueueFullNanos;
+
+    /**
+     * Instantiates an object to measure a run of the Doclet, starting the measurement.
+     */
+    public RunMetrics() {
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+
+        this.gcCountAtStart = getGcCount();
+        this.gcMillisAtStart = getGcMillis();
+    }
+
+    /**
+     * Sets the time spent analysing the JavaDoc documentation of all elements.
+     *
+     * @param nanos the analysis elapsed time in nanoseconds
+     */
+    public void setAnalysisTime(final long nanos) {
+        this.analysisNanos = nanos;
+    }
+
+    /**
+     * Sets the time spent exporting the coverage report.
+     *
+     * @param nanos the export elapsed time in nanoseconds
+     */
+    public void setExportTime(final long nanos) {
+        this.exportNanos = nanos;
+    }
+
+    /**
+     * Sets the time spent waiting for a full queue of text to be written to the report files in background.
+     *
+     * @param nanos the waiting time in nanoseconds
+     */
+    public void setWriteQueueFullTime(final long nanos) {
+        this.writeQueueFullNanos = nanos;
+    }
+
+    /**
+     * Wraps a stream used to write the coverage report, so that the bytes written are counted.
+     *
+     * @param out the stream to wrap
+     * @return the wrapping stream
+     */
+    public OutputStream countBytes(final OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(final int b) throws IOException {
+                out.write(b);
+                bytesWritten.increment();
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) throws IOException {
+                out.write(b, off, len);
+                bytesWritten.add(len);
+            }
+        };
+    }
+
+    /**
+     * Writes the metrics of the run to a JSON file.
+     *
+     * @param file the file to write the metrics to
+     * @param stats the JavaDoc coverage statistics computed in the run
+     * @throws FileNotFoundException when the file cannot be created
+     */
+    public void write(final File file, final JavaDocsStats stats) throws FileNotFoundException {
+        final CoverageTotals totals = stats.getCoverageTotals();
+        final long elements = totals.getMembersNumber();
+        final long tags =
+            totals.getMembersNumber(ElementKind.PARAM) + totals.getMembersNumber(ElementKind.TYPE_PARAM) +
+            totals.getMembersNumber(ElementKind.RETURN) + totals.getMembersNumber(ElementKind.EXCEPTION);
+        final double analysisSeconds = analysisNanos / (double) TimeUnit.SECONDS.toNanos(1);
+
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println("{");
+            writer.printf(Locale.ROOT, "  \"packages\": %d,%n", stats.getPackagesDocStats().getMembersNumber());
+            writer.printf(Locale.ROOT, "  \"classes\": %d,%n", stats.getClassesDocStats().getMembersNumber());
+            writer.printf(Locale.ROOT, "  \"methods\": %d,%n", totals.getMembersNumber(ElementKind.METHOD));
+            writer.printf(Locale.ROOT, "  \"tags\": %d,%n", tags);
+            writer.printf(Locale.ROOT, "  \"elements\": %d,%n", elements);
+            writer.printf(Locale.ROOT, "  \"analysisMillis\": %.3f,%n", analysisNanos / 1_000_000.0);
+            writer.printf(Locale.ROOT, "  \"exportMillis\": %.3f,%n", exportNanos / 1_000_000.0);
+            writer.printf(Locale.ROOT, "  \"writeQueueFullMillis\": %.3f,%n", writeQueueFullNanos / 1_000_000.0);
+            writer.printf(Locale.ROOT, "  \"elementsPerSecond\": %.1f,%n", analysisSeconds > 0 ? elements / analysisSeconds : 0);
+            writer.printf(Locale.ROOT, "  \"peakHeapBytes\": %d,%n", getPeakHeapBytes());
+            writer.printf(Locale.ROOT, "  \"gcCount\": %d,%n", getGcCount() - gcCountAtStart);
+            writer.printf(Locale.ROOT, "  \"gcMillis\": %d,%n", getGcMillis() - gcMillisAtStart);
+            writer.printf(Locale.ROOT, "  \"bytesWritten\": %d%n", bytesWritten.sum());
+            writer.println("}");
+        }
+    }
+
+    /**
+     * Gets the sum of the peak usage of each heap memory pool since the run started.
+     *
+     * @return the peak heap usage in bytes
+     */
+    private static long getPeakHeapBytes() {
+        long peak = 0;
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        return peak;
+    }
+
+    private static long getGcCount() {
+        long count = 0;
+        for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(gc.getCollectionCount(), 0);
+        }
+
+        return count;
+    }
+
+    private static long getGcMillis() {
+        long millis = 0;
+        for (final GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(gc.getCollectionTime(), 0);
+        }
+
+        return millis;
+    }
+}
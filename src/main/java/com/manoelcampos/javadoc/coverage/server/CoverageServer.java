@@ -0,0 +1,327 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.server;
+
+import com.manoelcampos.javadoc.coverage.metrics.OpenMetricsWriter;
+import com.manoelcampos.javadoc.coverage.stats.JavaDocsStats;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A local HTTP server which serves the JavaDoc coverage report as a set of pages
+ * rendered on demand, using the HTTP server built into the JDK.
+ * Instead of writing the entire report into a single file, only the pages which are viewed are rendered.
+ *
+ * <p>Rendered pages are kept into a LRU cache. Each page has an ETag, so that browsers
+ * can revalidate cached pages without downloading them again,
+ * and pages are gzip-compressed when the browser accepts it.
+ * Since the compressed and uncompressed pages are distinct representations, each one has its own ETag.
+ * When the statistics change, {@link #invalidate()} must be called to discard cached pages.</p>
+ *
+ * <p>The coverage is also served as metrics in the OpenMetrics text format at {@link #METRICS_PATH},
+ * so that it can be scraped by Prometheus.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see PageRenderer
+ * @since 1.3.0
+ */
+public final class CoverageServer {
+    /**
+     * The maximum number of rendered pages kept into the cache.
+     */
+    private static final int CACHE_SIZE = 256;
+
+    /**
+     * The minimum size in bytes of a page to be compressed.
+     */
+    private static final int MIN_GZIP_SIZE = 512;
+
+    private static final int THREADS = 4;
+
+    /**
+     * The path where the coverage metrics are served.
+     *
+     * @see OpenMetricsWriter
+     */
+    public static final String METRICS_PATH = "/metrics";
+
+    private static final String HTML_CONTENT_TYPE = "text/html; charset=utf-8";
+
+    private final JavaDocsStats stats;
+    private final HttpServer server;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * The cache of rendered pages, where the least recently accessed page is removed
+     * when the cache is full.
+     */
+    private final Map<String, Page> cache = new PageCache();
+
+    private PageRenderer renderer;
+
+    /**
+     * A number incremented each time the statistics change,
+     * which is included into ETags so that pages rendered from previous statistics are revalidated.
+     */
+    private int version;
+
+    /**
+     * A page rendered into bytes, together with its compressed version, ETag and Content-Type.
+     */
+    private static final class Page {
+        private final byte[] body;
+        private final byte[] gzippedBody;
+        private final String etag;
+
+        /**
+         * The ETag of the compressed body, which is a distinct representation of the page.
+         */
+        private final String gzippedEtag;
+        private final String contentType;
+
+        /**
+         * Instantiates a page.
+         *
+         * @param body the page content
+         * @param etag the ETag of the uncompressed body, which must be a quoted string
+         * @param contentType the Content-Type of the page
+         */
+        private Page(final byte[] body, final String etag, final String contentType) {
+            this.body = body;
+            this.gzippedBody = body.length >= MIN_GZIP_SIZE ? gzip(body) : null;
+            this.etag = etag;
+            this.gzippedEtag = etag.substring(0, etag.length() - 1) + "-gz\"";
+            this.contentType = contentType;
+        }
+
+        private static byte[] gzip(final byte[] body) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * A LRU map of rendered pages, which removes the least recently accessed page
+     * when it has more than {@link #CACHE_SIZE} pages.
+     */
+    private static final class PageCache extends LinkedHashMap<String, Page> {
+        private static final long serialVersionUID = 1L;
+
+        private PageCache() {
+            super(CACHE_SIZE, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Page> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    }
+
+    /**
+     * Instantiates a server for the JavaDoc coverage report, listening just to the local host.
+     *
+     * @param stats the JavaDoc coverage statistics to serve
+     * @param port the port to listen to
+     * @throws IOException when the server cannot listen to the given port
+     */
+    public CoverageServer(final JavaDocsStats stats, final int port) throws IOException {
+        this.stats = stats;
+        this.renderer = new PageRenderer(stats);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/", this::handle);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            final Thread thread = new Thread(runnable, "javadoc-coverage-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.setExecutor(executor);
+    }
+
+    /**
+     * Starts the server in background.
+     */
+    public void start() {
+        server.start();
+        System.out.printf("%nJavaDoc Coverage report served at http://localhost:%d/%n", server.getAddress().getPort());
+    }
+
+    /**
+     * Blocks the current thread until the server is stopped.
+     *
+     * @throws InterruptedException when the current thread is interrupted while waiting
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        server.stop(0);
+        stopped.countDown();
+    }
+
+    /**
+     * Discards all rendered pages after the statistics have changed.
+     * Callers must change the statistics while holding the lock of the {@link JavaDocsStats} object,
+     * which is also held while pages are rendered.
+     */
+    public void invalidate() {
+        synchronized (cache) {
+            cache.clear();
+            renderer = new PageRenderer(stats);
+            version++;
+        }
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                sendStatus(exchange, 405);
+                return;
+            }
+
+            final Page page = getPage(exchange.getRequestURI().getPath());
+            if (page == null) {
+                sendStatus(exchange, 404);
+                return;
+            }
+
+            final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            final boolean gzip = page.gzippedBody != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+            final String etag = gzip ? page.gzippedEtag : page.etag;
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            if (matchesEtag(exchange.getRequestHeaders().get("If-None-Match"), etag)) {
+                sendStatus(exchange, 304);
+                return;
+            }
+
+            final byte[] body = gzip ? page.gzippedBody : page.body;
+            exchange.getResponseHeaders().set("Content-Type", page.contentType);
+            if (gzip) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+
+            final boolean head = "HEAD".equals(exchange.getRequestMethod());
+            exchange.sendResponseHeaders(200, head ? -1 : body.length);
+            if (!head) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Checks if the values of the If-None-Match header match the ETag of a page.
+     * Each value may be "*" or a comma-separated list of ETags,
+     * which are compared ignoring the weak "W/" prefix, as required for such a header.
+     *
+     * @param ifNoneMatch the values of the If-None-Match header, or null if it wasn't sent
+     * @param etag the ETag of the page to send
+     * @return true if the page didn't change since the client got it, false otherwise
+     */
+    private static boolean matchesEtag(final List<String> ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (final String value : ifNoneMatch) {
+            for (final String tag : value.split(",")) {
+                final String trimmed = tag.trim();
+                if ("*".equals(trimmed) || etag.equals(trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static void sendStatus(final HttpExchange exchange, final int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    /**
+     * Gets a page from the cache or renders it if it isn't cached.
+     *
+     * @param path the requested path
+     * @return the page or null if there is no page for the path
+     */
+    private Page getPage(final String path) {
+        synchronized (cache) {
+            final Page page = cache.get(path);
+            if (page != null) {
+                return page;
+            }
+        }
+
+        final boolean metrics = METRICS_PATH.equals(path);
+        final String content;
+        final PageRenderer currentRenderer;
+        final int currentVersion;
+        synchronized (stats) {
+            synchronized (cache) {
+                currentRenderer = renderer;
+                currentVersion = version;
+            }
+
+            content = metrics ? OpenMetricsWriter.toString(stats) : currentRenderer.render(path);
+        }
+
+        if (content == null) {
+            return null;
+        }
+
+        final Page page = new Page(
+                content.getBytes(StandardCharsets.UTF_8),
+                String.format("\"%d-%08x\"", currentVersion, content.hashCode()),
+                metrics ? OpenMetricsWriter.CONTENT_TYPE : HTML_CONTENT_TYPE);
+        synchronized (cache) {
+            if (currentVersion == version) {
+                cache.put(path, page);
+            }
+        }
+
+        return page;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.server;
+
+import com.manoelcampos.javadoc.coverage.exporter.HtmlExporter;
+import com.manoelcampos.javadoc.coverage.stats.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders the HTML pages served by the {@link CoverageServer}:
+ * a project page listing packages, a page for each package listing its classes,
+ * a page for each class listing its members and a page for each method/constructor.
+ * Each page is rendered on demand from the {@link JavaDocsStats} of the project.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+final class PageRenderer {
+    private final JavaDocsStats stats;
+
+    private final StringBuilder html = new StringBuilder(4096);
+
+    /**
+     * Instantiates a renderer for pages of a project coverage report.
+     *
+     * @param stats the JavaDoc coverage statistics of the project
+     */
+    PageRenderer(final JavaDocsStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Renders the page for a given path.
+     *
+     * @param path the requested path, such as "/", "/package/com.company",
+     *             "/class/com.company.MyClass" or "/class/com.company.MyClass/2" (for the 3rd method/constructor)
+     * @return the rendered HTML page or null if there is no page for the path
+     */
+    String render(final String path) {
+        html.setLength(0);
+        if ("/".equals(path)) {
+            renderProject();
+        } else if (path.startsWith("/package/")) {
+            if (!renderPackage(path.substring("/package/".length()))) {
+                return null;
+            }
+        } else if (path.startsWith("/class/")) {
+            if (!renderClass(path.substring("/class/".length()))) {
+                return null;
+            }
+        } else return null;
+
+        html.append("</tbody></table></div></body></html>\n");
+        return html.toString();
+    }
+
+    private void renderProject() {
+        header("JavaDoc Coverage Report");
+        line(stats.getClassesDocStats(), "", "");
+        line(stats.getPackagesDocStats(), "", "");
+        for (final PackageDocStats packageStats : stats.query().getPackages()) {
+            line(packageStats, link("/package/" + packageStats.getName(), packageStats.getName()), "");
+        }
+
+        html.append(String.format("<tr>" + HtmlExporter.COLUMNS + "</tr>", "<strong>Project Documentation Coverage</strong>", "", "", "", "", "", stats.getDocumentedMembersPercent()));
+    }
+
+    private boolean renderPackage(final String packageName) {
+        final PackageDocStats packageStats = stats.query().findPackage(packageName);
+        if (packageStats == null) {
+            return false;
+        }
+
+        header("Package " + packageName);
+        line(packageStats, packageName, "");
+        for (final ClassDocStats classStats : stats.query().getClasses(packageName)) {
+            line(classStats, link("/class/" + classStats.getQualifiedName(), classStats.getName()), packageName);
+        }
+
+        return true;
+    }
+
+    private boolean renderClass(final String classPath) {
+        final int slash = classPath.indexOf('/');
+        final ClassDocStats classStats = stats.query().findClass(slash < 0 ? classPath : classPath.substring(0, slash));
+        if (classStats == null) {
+            return false;
+        }
+
+        final List<MethodDocStats> methods = new ArrayList<>(classStats.getConstructorsStats());
+        methods.addAll(classStats.getMethodsStats());
+        if (slash < 0) {
+            renderClassMembers(classStats, methods);
+            return true;
+        }
+
+        final int index;
+        try {
+            index = Integer.parseInt(classPath.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        if (index < 0 || index >= methods.size()) {
+            return false;
+        }
+
+        final MethodDocStats method = methods.get(index);
+        header(method.getType() + " " + classStats.getName() + "." + method.getMethodName());
+        line(classStats, link("/class/" + classStats.getQualifiedName(), classStats.getName()), classStats.getPackageName());
+        line(method, method.getMethodName() + HtmlExporter.formatQuality(method.getQuality()), "");
+        line(method.getParamsStats(), "", "");
+        line(method.getTypeParamsStats(), "", "");
+        line(method.getThrownExceptionsStats(), "", "");
+        return true;
+    }
+
+    private void renderClassMembers(final ClassDocStats classStats, final List<MethodDocStats> methods) {
+        header(classStats.getType() + " " + classStats.getQualifiedName());
+        line(classStats, classStats.getName() + HtmlExporter.formatQuality(classStats.getQuality()), link("/package/" + classStats.getPackageName(), classStats.getPackageName()));
+        line(classStats.getFieldsStats(), "", "");
+        line(classStats.getEnumsStats(), "", "");
+        line(classStats.getAnnotationsStats(), "", "");
+        final String classPath = "/class/" + classStats.getQualifiedName() + "/";
+        for (int i = 0; i < methods.size(); i++) {
+            line(methods.get(i), link(classPath + i, methods.get(i).getMethodName()) + HtmlExporter.formatQuality(methods.get(i).getQuality()), "");
+        }
+    }
+
+    private void header(final String title) {
+        html.append("<!DOCTYPE html>\n<html lang=en>\n<head>\n")
+            .append("    <title>").append(title).append("</title>\n")
+            .append("    <meta charset='utf-8'>\n")
+            .append("    <link rel='stylesheet' href='https://maxcdn.bootstrapcdn.com/bootstrap/3.3.7/css/bootstrap.min.css'>\n")
+            .append("</head>\n<body>\n<div class='table-responsive'>\n")
+            .append("<h2>").append(title).append("</h2>\n")
+            .append("<p>").append(link("/", "Project")).append("</p>\n")
+            .append("<table class='table table-bordered'>\n<thead class='thead-inverse'><tr>")
+            .append("<th>Element Type</th><th>Name</th><th>Package</th><th>Documentable Members</th><th>Undocumented</th><th>Documented</th><th>Documented Percent</th>")
+            .append("</tr></thead>\n<tbody>\n");
+    }
+
+    private void line(final DocStats docStats, final String name, final String pkg) {
+        if (docStats instanceof MembersDocStats && !((MembersDocStats) docStats).isPrintIfNoMembers() && docStats.getMembersNumber() == 0) {
+            return;
+        }
+
+        html.append("<tr>").append(String.format(
+                HtmlExporter.COLUMNS, docStats.getType(), name, pkg,
+                docStats.getMembersNumber(), docStats.getUndocumentedMembers(),
+                docStats.getDocumentedMembers(), docStats.getDocumentedMembersPercent()))
+            .append("</tr>\n");
+    }
+
+    private static String link(final String path, final String text) {
+        return "<a href='" + path + "'>" + text + "</a>";
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+/**
+ * Holds the objects shared by all statistics objects while the classes of a project are analysed.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+final class AnalysisContext {
+    private final StringTable names;
+    private final ElementFilter filter;
+    private final InheritedDocResolver inheritedDocs;
+    private UndocumentedElementListener listener;
+
+    /**
+     * Instantiates a context to analyse the classes of a project.
+     *
+     * @param filter the filter to select the elements to be analysed
+     * @param listener the listener to be notified about undocumented elements, or null if not required
+     */
+    AnalysisContext(final ElementFilter filter, final UndocumentedElementListener listener) {
+        this.names = new StringTable();
+        this.filter = filter;
+        this.inheritedDocs = new InheritedDocResolver();
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the table where names of class members are stored,
+     * so that names repeated across classes are stored just once.
+     *
+     * @return the names table
+     */
+    StringTable getNames() {
+        return names;
+    }
+
+    /**
+     * Gets the filter to select the elements to be analysed.
+     *
+     * @return the elements filter
+     */
+    ElementFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Gets the resolver of the documentation inherited from overridden methods,
+     * which is shared by all classes, so that each overridden method is resolved just once.
+     *
+     * @return the inherited documentation resolver
+     */
+    InheritedDocResolver getInheritedDocs() {
+        return inheritedDocs;
+    }
+
+    /**
+     * Gets the listener to be notified about undocumented elements.
+     *
+     * @return the listener or null if no listener must be notified
+     */
+    UndocumentedElementListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Stops notifying the {@link #getListener() listener} about the undocumented elements of classes analysed from now on.
+     */
+    void stopListening() {
+        listener = null;
+    }
+}
@@ -18,9 +18,9 @@ package com.manoelcampos.javadoc.coverage.stats;
 import com.manoelcampos.javadoc.coverage.Utils;
 import com.sun.javadoc.*;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Computes statistics about the JavaDocs of a class, inner class, interface or enum
@@ -38,93 +38,220 @@ public class ClassDocStats extends MembersDocStats {
      */
     private static final int CLASS_DOC = 1;
 
-    private final ClassDoc doc;
+    private final String name;
+    private final String packageName;
+
+    /**
+     * The name of the class including its package, which is computed once
+     * since it's used as the key to sort classes.
+     */
+    private final String qualifiedName;
+    private final String type;
+    private final boolean documented;
+    private final CommentQuality quality;
+    private final ElementFilter.Visibility visibility;
+
+    /**
+     * The absolute path of the Java file where the class is declared,
+     * or null if the class is not declared into a source file.
+     */
+    private final Path sourceFile;
+
     private final ClassMembersDocStats fieldsStats;
     private final ClassMembersDocStats enumsStats;
     private ClassMembersDocStats annotationsStats;
 
-    private List<MethodDocStats> methodsStats;
-    private List<MethodDocStats> constructorsStats;
+    /**
+     * Stores the JavaDoc coverage statistics for the methods of the class,
+     * followed by the statistics for its constructors.
+     */
+    private final MethodsTable methodsTable;
+
+    /**
+     * The number of methods into the {@link #methodsTable},
+     * which is the row where constructors start.
+     */
+    private final int methodsNumber;
+
+    /**
+     * The number of documentable and documented elements of each kind,
+     * including the class itself and all its members.
+     */
+    private final CoverageTotals totals = new CoverageTotals();
 
     public ClassDocStats(final ClassDoc doc) {
-        this.doc = doc;
-        fieldsStats = new ClassMembersDocStats(doc.fields(false), "Fields");
-        enumsStats = new ClassMembersDocStats(doc.enumConstants(), "Enum Consts");
-        processMethodsDocsStats(doc);
-        processConstructorsDocsStats(doc);
-        processAnnotationsDocsStats(doc);
+        this(doc, new AnalysisContext(ElementFilter.ALL, null));
     }
 
-    private void processAnnotationsDocsStats(ClassDoc doc) {
-        if (doc instanceof AnnotationTypeDoc) {
-            annotationsStats = new ClassMembersDocStats(((AnnotationTypeDoc) doc).elements(), "Annotations");
-        } else annotationsStats = new ClassMembersDocStats(new AnnotationTypeElementDoc[0], "Annotations");
-    }
+    /**
+     * Instantiates an object to compute JavaDoc coverage statistics for a class.
+     * The statistics are computed when the object is created,
+     * so that no reference to the given JavaDoc documentation is kept.
+     * Just the members selected by the {@link ElementFilter} of the given context are analysed.
+     *
+     * @param doc the element which enables reading the class' JavaDoc documentation
+     * @param context the context with the objects shared by all analysed classes
+     */
+    ClassDocStats(final ClassDoc doc, final AnalysisContext context) {
+        this.name = doc.name();
+        this.packageName = doc.containingPackage().name();
+        this.qualifiedName = packageName.isEmpty() ? name : packageName + "." + name;
+        this.type = doc.isInterface() ? "Interface" : doc.isEnum() ? "Enum" : "Class";
+        this.documented = Utils.isElementDocumented(doc.getRawCommentText());
+        this.quality = documented ? CommentQuality.scan(doc.getRawCommentText(), doc.name()) : CommentQuality.NONE;
+        this.visibility = ElementFilter.Visibility.of(doc);
+        this.sourceFile = doc.position() == null ? null : Utils.normalizePath(doc.position().file().toPath());
+        final ElementFilter filter = context.getFilter();
+        if (!documented && context.getListener() != null) {
+            context.getListener().undocumented(ElementKind.CLASS, doc.qualifiedName(), null, doc.position());
+        }
 
-    private void processConstructorsDocsStats(ClassDoc doc) {
-        final ConstructorDoc[] constructors = doc.constructors(false);
-        constructorsStats = new ArrayList<>(constructors.length);
-        for (final ConstructorDoc constructor : constructors) {
-            constructorsStats.add(new MethodDocStats(constructor));
+        fieldsStats = new ClassMembersDocStats(filter.filterMembers(doc.fields(false)), "Fields", ElementKind.FIELD, context);
+        enumsStats = new ClassMembersDocStats(filter.filterMembers(doc.enumConstants()), "Enum Consts", ElementKind.ENUM_CONSTANT, context);
+
+        final MethodDoc[] methods = filter.filterMembers(doc.methods(false));
+        final ConstructorDoc[] constructors = filter.filterMembers(doc.constructors(false));
+        methodsTable = new MethodsTable(context, methods.length + constructors.length);
+        methodsNumber = methods.length;
+        processMethodsDocsStats(methods);
+        processMethodsDocsStats(constructors);
+        processAnnotationsDocsStats(doc, context);
+
+        totals.add(ElementKind.CLASS, CLASS_DOC, Utils.boolToInt(documented));
+        if (quality.isPoor()) {
+            totals.addPoorlyDocumented(ElementKind.CLASS);
         }
+
+        addTotals(ElementKind.FIELD, fieldsStats);
+        addTotals(ElementKind.ENUM_CONSTANT, enumsStats);
+        addTotals(ElementKind.ANNOTATION_ELEMENT, annotationsStats);
+    }
+
+    private void addTotals(final ElementKind kind, final ClassMembersDocStats membersStats) {
+        totals.add(kind, membersStats.getMembersNumber(), membersStats.getDocumentedMembers());
     }
 
-    private void processMethodsDocsStats(ClassDoc doc) {
-        final MethodDoc[] methods = doc.methods(false);
-        methodsStats = new ArrayList<>(methods.length);
-        for (final MethodDoc method : methods) {
-            methodsStats.add(new MethodDocStats(method));
+    private void processAnnotationsDocsStats(ClassDoc doc, AnalysisContext context) {
+        final AnnotationTypeElementDoc[] elements = doc instanceof AnnotationTypeDoc ?
+                context.getFilter().filterMembers(((AnnotationTypeDoc) doc).elements()) :
+                new AnnotationTypeElementDoc[0];
+        annotationsStats = new ClassMembersDocStats(elements, "Annotations", ElementKind.ANNOTATION_ELEMENT, context);
+    }
+
+    private void processMethodsDocsStats(final ExecutableMemberDoc[] methodsOrConstructors) {
+        for (final ExecutableMemberDoc method : methodsOrConstructors) {
+            methodsTable.add(method, totals);
         }
     }
 
     @Override
     public long getDocumentedMembers() {
+        long documentedMethodMembers = 0;
+        for (int row = 0; row < methodsTable.size(); row++) {
+            documentedMethodMembers += methodsTable.getDocumentedMembers(row);
+        }
+
         return
                 Utils.boolToInt(isDocumented()) +
                 fieldsStats.getDocumentedMembers() +
                 enumsStats.getDocumentedMembers() +
-                getDocumentedMethodMembers(methodsStats) +
-                getDocumentedMethodMembers(constructorsStats) +
+                documentedMethodMembers +
                 annotationsStats.getDocumentedMembers();
     }
 
+    /**
+     * {@inheritDoc}
+     * The number of members of methods and constructors is summed up directly from the {@link MethodsTable},
+     * without creating {@link MethodDocStats} objects.
+     *
+     * @return {@inheritDoc}
+     * @see MethodDocStats#getMembersNumber()
+     */
     @Override
     public long getMembersNumber() {
+        long methodMembers = 0;
+        for (int row = 0; row < methodsTable.size(); row++) {
+            methodMembers += methodsTable.getMembersNumber(row);
+        }
+
         return CLASS_DOC +
                fieldsStats.getMembersNumber() +
                enumsStats.getMembersNumber() +
-                getMethodMembers(methodsStats) +
-                getMethodMembers(constructorsStats) +
+               methodMembers +
                annotationsStats.getMembersNumber();
     }
 
-    private long getDocumentedMethodMembers(final List<MethodDocStats> methodOrConstructor) {
-        return methodOrConstructor.stream().filter(MethodDocStats::isDocumented).count() +
-               methodOrConstructor.stream().mapToLong(MethodDocStats::getDocumentedMembers).sum();
+    public String getName() {
+        return name;
+    }
+
+    public String getPackageName() {
+        return packageName;
     }
 
     /**
-     * Gets the amount of documentable members from a given list of methods/constructors.
+     * Gets the name of the class, including its package.
      *
-     * @param methodOrConstructor a list containing the methods and constructors to get their number of members
-     * @return the total number of members for the given list of methods/constructors
-     * @see MethodDocStats#getMembersNumber()
+     * @return the fully qualified name of the class
      */
-    private long getMethodMembers(final List<MethodDocStats> methodOrConstructor) {
-        return methodOrConstructor.stream().mapToLong(MethodDocStats::getMembersNumber).sum();
+    public String getQualifiedName() {
+        return qualifiedName;
     }
 
-    public String getName() {
-        return doc.name();
+    /**
+     * Gets the qualified name of the top-level type the class is nested into.
+     * Since the name of an inner class is prefixed with the names of its enclosing classes
+     * (such as {@code Outer.Inner}), the top-level type is got from the name,
+     * without walking through the enclosing classes.
+     *
+     * @return the qualified name of the top-level type, or the qualified name of the class if it's a top-level one
+     */
+    public String getTopLevelQualifiedName() {
+        final int i = name.indexOf('.');
+        if (i < 0) {
+            return getQualifiedName();
+        }
+
+        return packageName.isEmpty() ? name.substring(0, i) : packageName + "." + name.substring(0, i);
     }
 
-    public String getPackageName() {
-        return doc.containingPackage().name();
+    /**
+     * Gets the absolute path of the Java file where the class is declared.
+     *
+     * @return the path of the class source file or null if the class is not declared into a source file
+     */
+    public Path getSourceFile() {
+        return sourceFile;
     }
 
     @Override
     public String getType() {
-        return doc.isInterface() ? "Interface" : doc.isEnum() ? "Enum" : "Class";
+        return type;
+    }
+
+    /**
+     * Gets the visibility of the class, as declared into its source code.
+     *
+     * @return the class visibility
+     */
+    public ElementFilter.Visibility getVisibility() {
+        return visibility;
+    }
+
+    /**
+     * Performs an action for the class, if it's undocumented, and for each of its undocumented members.
+     *
+     * @param action the action to perform
+     */
+    void forEachUndocumented(final Consumer<UndocumentedElement> action) {
+        if (!documented) {
+            action.accept(new UndocumentedElement(ElementKind.CLASS, this, name, visibility, 1));
+        }
+
+        fieldsStats.forEachUndocumented(this, action);
+        enumsStats.forEachUndocumented(this, action);
+        annotationsStats.forEachUndocumented(this, action);
+        methodsTable.forEachUndocumented(this, action);
     }
 
     public ClassMembersDocStats getFieldsStats() {
@@ -139,20 +266,45 @@ public class ClassDocStats extends MembersDocStats {
         return annotationsStats;
     }
 
-    public List<MethodDocStats> getMethodsStats() {
-        return Collections.unmodifiableList(methodsStats);
+    /**
+     * Gets the number of documentable and documented elements of each kind,
+     * including the class itself and all its members.
+     *
+     * @return the class' coverage totals
+     */
+    public CoverageTotals getCoverageTotals() {
+        return totals;
     }
 
-    public List<MethodDocStats> getConstructorsStats() {
-        return Collections.unmodifiableList(constructorsStats);
+    /**
+     * Gets the table storing the JavaDoc coverage statistics for the methods of the class,
+     * followed by the ones for its constructors.
+     *
+     * @return the methods table
+     */
+    MethodsTable getMethodsTable() {
+        return methodsTable;
     }
 
-    public ClassDoc getDoc() {
-        return doc;
+    public List<MethodDocStats> getMethodsStats() {
+        return methodsTable.asList(0, methodsNumber);
+    }
+
+    public List<MethodDocStats> getConstructorsStats() {
+        return methodsTable.asList(methodsNumber, methodsTable.size());
     }
 
     @Override
     public boolean isDocumented() {
-        return Utils.isElementDocumented(doc.getRawCommentText());
+        return documented;
+    }
+
+    /**
+     * Gets the quality of the class' description.
+     *
+     * @return the description quality
+     */
+    public CommentQuality getQuality() {
+        return quality;
     }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Groups the JavaDoc coverage statistics of a top-level class, interface or enum
+ * with the ones of all the types nested into it (at any level),
+ * so that inner types are aggregated into the totals of their top-level type.
+ *
+ * <p>Anonymous classes and lambdas aren't visible to the JavaDoc tool,
+ * so they aren't part of any group.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see ClassesDocStats#getClassGroups()
+ * @since 1.3.0
+ */
+public class ClassGroupDocStats extends MembersDocStats {
+    private final ClassDocStats topLevelClass;
+    private final List<ClassDocStats> innerClasses;
+
+    /**
+     * The number of documentable and documented elements of each kind,
+     * summed up for the top-level class and its inner types.
+     */
+    private final CoverageTotals totals;
+
+    /**
+     * Instantiates a group for a top-level class, without inner types yet.
+     *
+     * @param topLevelClass the JavaDoc coverage statistics of the top-level class
+     */
+    ClassGroupDocStats(final ClassDocStats topLevelClass) {
+        this.topLevelClass = topLevelClass;
+        this.innerClasses = new ArrayList<>();
+        this.totals = new CoverageTotals();
+        this.totals.add(topLevelClass.getCoverageTotals());
+    }
+
+    /**
+     * Adds an inner type to the group.
+     *
+     * @param innerClass the JavaDoc coverage statistics of the inner type
+     */
+    void addInnerClass(final ClassDocStats innerClass) {
+        innerClasses.add(innerClass);
+        totals.add(innerClass.getCoverageTotals());
+    }
+
+    /**
+     * Gets the JavaDoc coverage statistics of the top-level class of the group.
+     * If the top-level class was filtered out, that is the first analysed type nested into it.
+     *
+     * @return the top-level class' statistics
+     */
+    public ClassDocStats getTopLevelClass() {
+        return topLevelClass;
+    }
+
+    /**
+     * Gets the JavaDoc coverage statistics of the types nested into the top-level class, at any level.
+     *
+     * @return a read-only List of inner types' statistics
+     */
+    public List<ClassDocStats> getInnerClasses() {
+        return Collections.unmodifiableList(innerClasses);
+    }
+
+    /**
+     * Gets the number of documentable and documented elements of each kind,
+     * summed up for the top-level class and its inner types.
+     *
+     * @return the group's coverage totals
+     */
+    public CoverageTotals getCoverageTotals() {
+        return totals;
+    }
+
+    @Override
+    public String getType() {
+        return topLevelClass.getType();
+    }
+
+    @Override
+    public long getMembersNumber() {
+        return topLevelClass.getMembersNumber() + innerClasses.stream().mapToLong(ClassDocStats::getMembersNumber).sum();
+    }
+
+    @Override
+    public long getDocumentedMembers() {
+        return topLevelClass.getDocumentedMembers() + innerClasses.stream().mapToLong(ClassDocStats::getDocumentedMembers).sum();
+    }
+
+    @Override
+    public boolean isDocumented() {
+        return topLevelClass.isDocumented();
+    }
+}
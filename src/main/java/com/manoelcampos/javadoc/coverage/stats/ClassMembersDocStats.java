@@ -17,9 +17,11 @@ package com.manoelcampos.javadoc.coverage.stats;
 
 import com.manoelcampos.javadoc.coverage.Utils;
 import com.sun.javadoc.Doc;
+import com.sun.javadoc.ProgramElementDoc;
 
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * Computes JavaDoc coverage statistics for specific type of members belonging to an owner.
@@ -30,22 +32,63 @@ import java.util.Objects;
  * @since 1.0.0
  */
 public class ClassMembersDocStats extends MembersDocStats {
+    private final long membersNumber;
+    private final long documentedMembers;
+    private final String membersType;
+    private final ElementKind kind;
+
     /**
-     * The JavaDoc documentation for the members of the owner.
+     * The table where the names of the {@link #undocumentedNameIds undocumented members} are stored.
      */
-    private final Doc[] membersDocs;
-    private final String membersType;
+    private final StringTable names;
+
+    /**
+     * The ids of the names of the undocumented members into the {@link #names} table.
+     */
+    private final int[] undocumentedNameIds;
+
+    /**
+     * The {@link ElementFilter.Visibility} ordinal of each undocumented member.
+     */
+    private final byte[] undocumentedVisibilities;
 
     /**
      * Instantiates an object to compute JavaDoc coverage statistics
      * for the members of a class, interface or enum.
+     * The statistics are computed when the object is created,
+     * so that no reference to the given JavaDoc documentation is kept.
+     * Just the name and visibility of undocumented members are stored.
      *
      * @param membersDocs the JavaDoc documentation for the members of the owner.
      * @param membersType the type of the members of the owner to compute JavaDoc coverage statistics.
+     * @param kind the kind of the members
+     * @param context the context where the names of undocumented members are stored
+     *                and the listener to notify about them is got
      */
-    ClassMembersDocStats(final Doc[] membersDocs, final String membersType) {
-        this.membersDocs = membersDocs;
+    ClassMembersDocStats(
+        final ProgramElementDoc[] membersDocs, final String membersType,
+        final ElementKind kind, final AnalysisContext context)
+    {
+        this.membersNumber = countMembers(membersDocs);
+        this.documentedMembers = Arrays.stream(membersDocs).map(Doc::getRawCommentText).filter(Utils::isNotStringEmpty).count();
         this.membersType = membersType;
+        this.kind = kind;
+        this.names = context.getNames();
+        final UndocumentedElementListener listener = context.getListener();
+
+        final int undocumented = (int)(membersDocs.length - documentedMembers);
+        this.undocumentedNameIds = new int[undocumented];
+        this.undocumentedVisibilities = new byte[undocumented];
+        int i = 0;
+        for (final ProgramElementDoc doc : membersDocs) {
+            if (Utils.isStringEmpty(doc.getRawCommentText())) {
+                undocumentedNameIds[i] = names.intern(doc.name());
+                undocumentedVisibilities[i++] = (byte) ElementFilter.Visibility.of(doc).ordinal();
+                if (listener != null) {
+                    listener.undocumented(kind, doc.qualifiedName(), null, doc.position());
+                }
+            }
+        }
     }
 
     /**
@@ -57,9 +100,11 @@ public class ClassMembersDocStats extends MembersDocStats {
      * into the source class but are counted as a member.
      * This way, it may count as a non-documented element
      * while it doesn't even exist into the source code.
+     *
+     * @param membersDocs the JavaDoc documentation for the members of the owner.
+     * @return the number of members declared into the source code
      */
-    @Override
-    public long getMembersNumber() {
+    private static long countMembers(final Doc[] membersDocs) {
         /*
          * @todo the method is not working as expected. It always returns the length of the array.
          * The side-effect is that default no-args constructors (which aren't directly declared into
@@ -71,9 +116,28 @@ public class ClassMembersDocStats extends MembersDocStats {
                 .count();
     }
 
+    /**
+     * Performs an action for each undocumented member.
+     *
+     * @param owner the class the members belong to
+     * @param action the action to perform
+     */
+    void forEachUndocumented(final ClassDocStats owner, final Consumer<UndocumentedElement> action) {
+        for (int i = 0; i < undocumentedNameIds.length; i++) {
+            action.accept(new UndocumentedElement(
+                    kind, owner, names.get(undocumentedNameIds[i]),
+                    ElementFilter.Visibility.of(undocumentedVisibilities[i]), 1));
+        }
+    }
+
+    @Override
+    public long getMembersNumber() {
+        return membersNumber;
+    }
+
     @Override
     public long getDocumentedMembers() {
-        return Arrays.stream(membersDocs).map(Doc::getRawCommentText).filter(Utils::isNotStringEmpty).count();
+        return documentedMembers;
     }
 
     @Override
@@ -17,11 +17,11 @@ package com.manoelcampos.javadoc.coverage.stats;
 
 import com.manoelcampos.javadoc.coverage.Utils;
 import com.sun.javadoc.ClassDoc;
-import com.sun.javadoc.Doc;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.*;
+
+import static java.util.stream.Collectors.toSet;
 
 /**
  * Computes JavaDoc coverage statistics for a list of classes.
@@ -30,18 +30,154 @@ import java.util.List;
  * @since 1.0.0
  */
 public class ClassesDocStats extends MembersDocStats {
+    /**
+     * The statistics of each class, sorted by the qualified name of the classes.
+     */
     private final List<ClassDocStats> classesDocStats;
 
+    /**
+     * The context shared by all analysed classes.
+     */
+    private final AnalysisContext context;
+
+    /**
+     * The number of documentable and documented elements of each kind, summed up for all classes.
+     */
+    private final CoverageTotals totals = new CoverageTotals();
+
+    /**
+     * The time to analyse each class.
+     */
+    private final LatencyHistogram analysisLatency = new LatencyHistogram();
+
+    /**
+     * The classes grouped by their top-level types, which are built when first requested.
+     *
+     * @see #getClassGroups()
+     */
+    private List<ClassGroupDocStats> classGroups;
+
     /**
      * Instantiates an object to compute JavaDoc coverage statistics for a list of classes.
      *
      * @param docs an array of elements which enables reading the classes' JavaDoc documentation
      */
     public ClassesDocStats(final ClassDoc[] docs){
+        this(docs, null, ElementFilter.ALL, null);
+    }
+
+    /**
+     * Instantiates an object to compute JavaDoc coverage statistics for a list of classes,
+     * offering each analysed class to a ranking of the worst documented elements.
+     *
+     * @param docs an array of elements which enables reading the JavaDoc documentation of the classes
+     *             already selected by the given filter
+     * @param ranking the ranking to offer analysed classes to or null to not rank classes
+     * @param filter the filter to select the members of each class to be analysed
+     * @param listener the listener to be notified about undocumented elements while the given classes are analysed,
+     *                 or null if not required
+     */
+    ClassesDocStats(
+        final ClassDoc[] docs, final CoverageRanking ranking,
+        final ElementFilter filter, final UndocumentedElementListener listener)
+    {
+        context = new AnalysisContext(filter, listener);
         classesDocStats = new ArrayList<>(docs.length);
-        for (final ClassDoc doc : docs) {
-            classesDocStats.add(new ClassDocStats(doc));
+        for (final ClassDoc doc : sortByQualifiedName(docs)) {
+            addClass(analyseClass(doc), ranking);
         }
+
+        context.stopListening();
+    }
+
+    /**
+     * Sorts classes by their qualified names, so that the statistics, the ranking and the reports
+     * don't depend on the order the JavaDoc tool provides the classes, which may change between runs and JDKs.
+     * Each name is got just once before sorting, since the JavaDoc tool builds it again each time it's requested.
+     *
+     * @param docs the classes to sort
+     * @return a new array with the classes sorted by name
+     */
+    private static ClassDoc[] sortByQualifiedName(final ClassDoc[] docs) {
+        final String[] names = new String[docs.length];
+        final Integer[] order = new Integer[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            names[i] = docs[i].qualifiedName();
+            order[i] = i;
+        }
+
+        Arrays.sort(order, Comparator.comparing(i -> names[i]));
+        final ClassDoc[] sorted = new ClassDoc[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            sorted[i] = docs[order[i]];
+        }
+
+        return sorted;
+    }
+
+    private ClassDocStats analyseClass(final ClassDoc doc) {
+        final long start = System.nanoTime();
+        final ClassDocStats classStats = new ClassDocStats(doc, context);
+        analysisLatency.record(System.nanoTime() - start);
+        return classStats;
+    }
+
+    private void addClass(final ClassDocStats classStats, final CoverageRanking ranking) {
+        classesDocStats.add(classStats);
+        totals.add(classStats.getCoverageTotals());
+        if (ranking != null) {
+            ranking.addClass(classStats);
+        }
+    }
+
+    /**
+     * Replaces the statistics of the classes declared into a set of changed Java files.
+     * The method is synchronized with {@link #getClassGroups()},
+     * so that the groups are never built from a list being updated.
+     *
+     * @param changedFiles the Java files which were created, modified or deleted
+     * @param changedClasses elements which enable reading the JavaDoc documentation
+     *                       of the classes currently declared into the changed files
+     */
+    synchronized void update(final Collection<Path> changedFiles, final ClassDoc[] changedClasses) {
+        final Set<Path> files = changedFiles.stream().map(Utils::normalizePath).collect(toSet());
+        classesDocStats.removeIf(classStats -> removeClass(classStats, files));
+        classGroups = null;
+        context.getInheritedDocs().clear();
+        for (final ClassDoc doc : changedClasses) {
+            addClass(analyseClass(doc), null);
+        }
+
+        /*Just the changed classes are out of order, which the merge sort of List.sort handles in almost linear time.*/
+        classesDocStats.sort(Comparator.comparing(ClassDocStats::getQualifiedName));
+    }
+
+    private boolean removeClass(final ClassDocStats classStats, final Set<Path> changedFiles) {
+        if (!changedFiles.contains(classStats.getSourceFile())) {
+            return false;
+        }
+
+        totals.subtract(classStats.getCoverageTotals());
+        return true;
+    }
+
+    /**
+     * Gets the histogram of the time spent analysing each class,
+     * including the classes re-analysed after they changed.
+     *
+     * @return the class analysis latency histogram
+     */
+    public LatencyHistogram getAnalysisLatency() {
+        return analysisLatency;
+    }
+
+    /**
+     * Gets the number of documentable and documented elements of each kind, summed up for all classes.
+     *
+     * @return the classes' coverage totals
+     */
+    public CoverageTotals getCoverageTotals() {
+        return totals;
     }
 
     @Override
@@ -56,11 +192,12 @@ public class ClassesDocStats extends MembersDocStats {
 
     @Override
     public long getDocumentedMembers() {
-        return classesDocStats.stream().map(ClassDocStats::getDoc).map(Doc::getRawCommentText).filter(Utils::isNotStringEmpty).count();
+        return classesDocStats.stream().filter(ClassDocStats::isDocumented).count();
     }
 
     /**
-     * Gets a List where each element represents the individual JavaDoc coverage statistics for a specific class.
+     * Gets a List where each element represents the individual JavaDoc coverage statistics for a specific class,
+     * sorted by the qualified name of the classes.
      *
      * @return a List of class's JavaDoc coverage statistics
      */
@@ -68,6 +205,44 @@ public class ClassesDocStats extends MembersDocStats {
         return Collections.unmodifiableList(classesDocStats);
     }
 
+    /**
+     * Gets the classes grouped by their top-level types, where each inner type
+     * is aggregated into the group of its top-level type.
+     * Groups are sorted by the qualified name of their top-level classes and inner types
+     * are sorted by their qualified names inside each group.
+     *
+     * <p>The groups are built just once, using an index of the groups by the qualified name
+     * of their top-level classes, so that the group of each inner type is found in constant time.
+     * Since classes are sorted by qualified name, each top-level class is reached before its inner types
+     * and the groups are created in the order of their top-level classes.
+     * An inner type whose top-level class was filtered out starts its own group,
+     * which is placed where the group of such a top-level class would be.
+     * The method is synchronized, since exporters running on different threads may request the groups.</p>
+     *
+     * @return a read-only List of class groups
+     */
+    public synchronized List<ClassGroupDocStats> getClassGroups() {
+        if (classGroups != null) {
+            return classGroups;
+        }
+
+        final Map<String, ClassGroupDocStats> groupsIndex = new HashMap<>();
+        final List<ClassGroupDocStats> groups = new ArrayList<>();
+        for (final ClassDocStats classStats : classesDocStats) {
+            final ClassGroupDocStats group = groupsIndex.get(classStats.getTopLevelQualifiedName());
+            if (group == null) {
+                final ClassGroupDocStats newGroup = new ClassGroupDocStats(classStats);
+                groupsIndex.put(classStats.getTopLevelQualifiedName(), newGroup);
+                groups.add(newGroup);
+            } else {
+                group.addInnerClass(classStats);
+            }
+        }
+
+        classGroups = Collections.unmodifiableList(groups);
+        return classGroups;
+    }
+
     /**
      * A set of classes doesn't have documentation,
      * only each individual class may have.
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Signals about the quality of the description into the JavaDoc of an element,
+ * such as a class or method, which are computed in a single pass over the characters of the comment.
+ *
+ * <p>A description may count as documentation but still be useless, such as when
+ * it's just a placeholder ("TODO"), when it merely repeats the name of the element
+ * ("Gets the name" for {@code getName()}) or when it has no first sentence summarizing the element.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class CommentQuality {
+    /**
+     * The quality of an element without a description or whose description is not available.
+     */
+    public static final CommentQuality NONE = new CommentQuality(0, 0);
+
+    private static final int PLACEHOLDER = 1;
+    private static final int REPEATS_NAME = 1 << 1;
+    private static final int NO_SUMMARY = 1 << 2;
+    private static final int FLAGS_BITS = 3;
+
+    /**
+     * Words which indicate a description is just a placeholder.
+     */
+    private static final String[] PLACEHOLDERS = {"todo", "fixme", "tbd", "tba", "xxx"};
+
+    /**
+     * Words which don't add any information when comparing a description with the name of an element.
+     */
+    private static final String[] NOISE_WORDS = {
+        "a", "an", "the", "of", "this", "that", "to", "is", "it", "its", "for", "and", "or", "s",
+        "get", "gets", "set", "sets", "return", "returns"
+    };
+
+    private final int words;
+    private final int flags;
+
+    private CommentQuality(final int words, final int flags) {
+        this.words = words;
+        this.flags = flags;
+    }
+
+    /**
+     * Scans the description into the JavaDoc of an element,
+     * which is the text before the first block tag (such as {@code @param}).
+     * The characters of the comment are read just once and no part of it is copied.
+     * HTML tags and the names of inline tags (such as {@code {@link}}) aren't counted as words.
+     *
+     * @param javadoc the complete JavaDoc for an element
+     * @param name the name of the element, which is split into words by its camel case
+     * @return the quality of the description, or {@link #NONE} if there is no description
+     */
+    static CommentQuality scan(final String javadoc, final String name) {
+        final String[] nameWords = splitCamelCase(name);
+        int words = 0;
+        boolean summary = false;
+        boolean placeholder = false;
+        boolean repeatsName = true;
+        boolean lineStart = true;
+        int wordStart = -1;
+        final int length = javadoc.length();
+        for (int i = 0; i <= length; i++) {
+            final char c = i < length ? javadoc.charAt(i) : '\n';
+            if (Character.isLetterOrDigit(c)) {
+                if (wordStart < 0) {
+                    wordStart = i;
+                }
+
+                lineStart = false;
+                continue;
+            }
+
+            if (wordStart >= 0) {
+                words++;
+                placeholder |= matchesAny(javadoc, wordStart, i, PLACEHOLDERS);
+                repeatsName &= matchesAny(javadoc, wordStart, i, nameWords) || matchesAny(javadoc, wordStart, i, NOISE_WORDS);
+                wordStart = -1;
+            }
+
+            if (c == '\n') {
+                lineStart = true;
+            } else if (c == '@' && lineStart) {
+                break;
+            } else if (c == '<') {
+                i = skipUntil(javadoc, i, '>');
+            } else if (c == '{' && i + 1 < length && javadoc.charAt(i + 1) == '@') {
+                i = skipInlineTagName(javadoc, i + 1);
+            } else if (c == '.' && words > 0 && (i + 1 >= length || javadoc.charAt(i + 1) <= ' ')) {
+                summary = true;
+            }
+
+            lineStart &= c <= ' ';
+        }
+
+        if (words == 0) {
+            return NONE;
+        }
+
+        final int flags = (placeholder ? PLACEHOLDER : 0) | (repeatsName ? REPEATS_NAME : 0) | (summary ? 0 : NO_SUMMARY);
+        return new CommentQuality(words, flags);
+    }
+
+    private static int skipUntil(final String javadoc, final int index, final char c) {
+        final int end = javadoc.indexOf(c, index);
+        return end < 0 ? javadoc.length() - 1 : end;
+    }
+
+    private static int skipInlineTagName(final String javadoc, int index) {
+        while (index + 1 < javadoc.length() && Character.isLetter(javadoc.charAt(index + 1))) {
+            index++;
+        }
+
+        return index;
+    }
+
+    private static boolean matchesAny(final String javadoc, final int start, final int end, final String[] words) {
+        final int length = end - start;
+        for (final String word : words) {
+            if (word.length() == length && javadoc.regionMatches(true, start, word, 0, length)) {
+                return true;
+            }
+
+            /* Also matches the plural or third person form of a name word, such as "fields" for "field". */
+            if (word.length() == length - 1 && Character.toLowerCase(javadoc.charAt(end - 1)) == 's' &&
+                javadoc.regionMatches(true, start, word, 0, word.length()))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Splits the name of an element into words by its camel case, including the name itself,
+     * for instance, "getFieldName" is split into "getFieldName", "get", "Field" and "Name".
+     *
+     * @param name the name to split
+     * @return the words of the name
+     */
+    private static String[] splitCamelCase(final String name) {
+        final List<String> words = new ArrayList<>();
+        words.add(name);
+        int start = 0;
+        for (int i = 1; i <= name.length(); i++) {
+            if (i == name.length() || Character.isUpperCase(name.charAt(i)) || name.charAt(i) == '_') {
+                if (i > start) {
+                    words.add(name.substring(start, i));
+                }
+
+                start = i < name.length() && name.charAt(i) == '_' ? i + 1 : i;
+            }
+        }
+
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Encodes the quality into an int, so that it can be compactly stored into the {@link MethodsTable}.
+     *
+     * @return the encoded quality
+     * @see #decode(int)
+     */
+    int encode() {
+        return words << FLAGS_BITS | flags;
+    }
+
+    /**
+     * Decodes a quality encoded by {@link #encode()}.
+     *
+     * @param value the encoded quality
+     * @return the decoded quality
+     */
+    static CommentQuality decode(final int value) {
+        return value == 0 ? NONE : new CommentQuality(value >>> FLAGS_BITS, value & ((1 << FLAGS_BITS) - 1));
+    }
+
+    /**
+     * Gets the number of words into the description.
+     *
+     * @return the number of words
+     */
+    public int getWords() {
+        return words;
+    }
+
+    /**
+     * Checks if the description contains placeholder words, such as "TODO" or "FIXME".
+     *
+     * @return true if the description contains a placeholder, false otherwise
+     */
+    public boolean hasPlaceholder() {
+        return (flags & PLACEHOLDER) != 0;
+    }
+
+    /**
+     * Checks if the description just repeats the words of the name of the element it documents,
+     * such as "Gets the field name" for {@code getFieldName()}.
+     *
+     * @return true if the description repeats the element name, false otherwise
+     */
+    public boolean isRepeatingName() {
+        return (flags & REPEATS_NAME) != 0;
+    }
+
+    /**
+     * Checks if the description has a first sentence ending with a period,
+     * which is used by the JavaDoc tool as the summary of the element.
+     *
+     * @return true if the description has a summary sentence, false otherwise
+     */
+    public boolean hasSummary() {
+        return words > 0 && (flags & NO_SUMMARY) == 0;
+    }
+
+    /**
+     * Checks if the description is poor, because it contains a placeholder,
+     * repeats the element name or has no summary sentence.
+     *
+     * @return true if the description is poor, false otherwise
+     */
+    public boolean isPoor() {
+        return flags != 0;
+    }
+
+    /**
+     * Gets the issues found into the description, separated by commas.
+     *
+     * @return the description issues or an empty String if the description isn't poor
+     */
+    public String getIssues() {
+        final StringBuilder issues = new StringBuilder();
+        if (hasPlaceholder()) {
+            issues.append("placeholder");
+        }
+
+        if (isRepeatingName()) {
+            issues.append(issues.length() > 0 ? ", " : "").append("repeats name");
+        }
+
+        if ((flags & NO_SUMMARY) != 0) {
+            issues.append(issues.length() > 0 ? ", " : "").append("no summary");
+        }
+
+        return issues.toString();
+    }
+
+    @Override
+    public String toString() {
+        return isPoor() ? String.format("%d words (%s)", words, getIssues()) : String.format("%d words", words);
+    }
+}
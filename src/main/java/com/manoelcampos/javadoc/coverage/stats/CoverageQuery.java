@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A read-only query API over the JavaDoc coverage statistics of a project,
+ * for tools which embed the Doclet and need to inspect its results without parsing reports.
+ *
+ * <p>Indexes are built once, when the object is created, so that packages and classes are
+ * looked up by name in constant time and subpackages are found in logarithmic time,
+ * instead of scanning the list of classes for every question.
+ * The object reflects the statistics at the time it was created: after the statistics
+ * are updated, a new object must be got from {@link JavaDocsStats#query()}.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class CoverageQuery {
+    private final List<ClassDocStats> classes;
+    private final Map<String, ClassDocStats> classesByName;
+    private final Map<String, List<ClassDocStats>> classesByPackage;
+
+    /**
+     * The packages sorted by name, so that the subpackages of a package are a contiguous range.
+     */
+    private final NavigableMap<String, PackageDocStats> packages;
+
+    /**
+     * Instantiates a query API, indexing the packages and classes of a project.
+     *
+     * @param stats the JavaDoc coverage statistics of the project
+     */
+    CoverageQuery(final JavaDocsStats stats) {
+        /*A copy is kept, so that the list and the indexes keep representing the same classes after the statistics are updated.*/
+        this.classes = new ArrayList<>(stats.getClassesDocStats().getClassesList());
+        this.classesByName = new HashMap<>(classes.size() * 4 / 3 + 1);
+        this.classesByPackage = new HashMap<>();
+        for (final ClassDocStats classStats : classes) {
+            classesByName.put(classStats.getQualifiedName(), classStats);
+            classesByPackage.computeIfAbsent(classStats.getPackageName(), name -> new ArrayList<>()).add(classStats);
+        }
+
+        this.packages = new TreeMap<>();
+        for (final PackageDocStats packageStats : stats.getPackagesDocStats().getPackagesStats()) {
+            packages.put(packageStats.getName(), packageStats);
+        }
+    }
+
+    /**
+     * Finds a package by its name.
+     *
+     * @param name the package name
+     * @return the package's JavaDoc coverage statistics or null if there is no such package
+     */
+    public PackageDocStats findPackage(final String name) {
+        return packages.get(name);
+    }
+
+    /**
+     * Finds a class by its qualified name, such as "com.company.MyClass" or "com.company.MyClass.InnerClass".
+     *
+     * @param qualifiedName the class qualified name
+     * @return the class' JavaDoc coverage statistics or null if there is no such class
+     */
+    public ClassDocStats findClass(final String qualifiedName) {
+        return classesByName.get(qualifiedName);
+    }
+
+    /**
+     * Gets the classes declared into a package (excluding its subpackages).
+     *
+     * @param packageName the package name
+     * @return a read-only List of classes' JavaDoc coverage statistics, which is empty if there is no such package
+     */
+    public List<ClassDocStats> getClasses(final String packageName) {
+        return Collections.unmodifiableList(classesByPackage.getOrDefault(packageName, Collections.emptyList()));
+    }
+
+    /**
+     * Gets all packages, sorted by name.
+     *
+     * @return a read-only Collection of packages' JavaDoc coverage statistics
+     */
+    public Collection<PackageDocStats> getPackages() {
+        return Collections.unmodifiableCollection(packages.values());
+    }
+
+    /**
+     * Gets a package and all its subpackages, sorted by name.
+     *
+     * @param packageName the name of the parent package
+     * @return a read-only Collection of packages' JavaDoc coverage statistics
+     */
+    public Collection<PackageDocStats> getPackageTree(final String packageName) {
+        /*Subpackages start with "packageName." and '/' is the char right after '.'*/
+        final List<PackageDocStats> tree = new ArrayList<>();
+        final PackageDocStats packageStats = packages.get(packageName);
+        if (packageStats != null) {
+            tree.add(packageStats);
+        }
+
+        tree.addAll(packages.subMap(packageName + ".", packageName + "/").values());
+        return Collections.unmodifiableList(tree);
+    }
+
+    /**
+     * Gets a Stream of all undocumented elements of the project, which are computed lazily, class by class.
+     *
+     * @return a Stream of undocumented elements
+     */
+    public Stream<UndocumentedElement> undocumented() {
+        return classes.stream().flatMap(classStats -> {
+            final List<UndocumentedElement> elements = new ArrayList<>();
+            classStats.forEachUndocumented(elements::add);
+            return elements.stream();
+        });
+    }
+
+    /**
+     * Gets a Stream of the undocumented elements of the project
+     * which have some given kinds and a minimum visibility.
+     *
+     * @param kinds the kinds of elements to include
+     * @param minVisibility the minimum visibility of elements to include
+     * @return a Stream of undocumented elements
+     */
+    public Stream<UndocumentedElement> undocumented(final Set<ElementKind> kinds, final ElementFilter.Visibility minVisibility) {
+        return undocumented().filter(element -> kinds.contains(element.getKind()) && element.getVisibility().isAtLeast(minVisibility));
+    }
+
+    /**
+     * Folds the classes which meet a given condition into an aggregate value.
+     *
+     * @param filter the condition to select the classes to fold
+     * @param identity the initial aggregate value
+     * @param accumulator a function which receives the current aggregate value and a class,
+     *                    returning the new aggregate value
+     * @param <R> the type of the aggregate value
+     * @return the final aggregate value
+     */
+    public <R> R fold(
+        final Predicate<? super ClassDocStats> filter, final R identity,
+        final BiFunction<R, ? super ClassDocStats, R> accumulator)
+    {
+        R result = identity;
+        for (final ClassDocStats classStats : classes) {
+            if (filter.test(classStats)) {
+                result = accumulator.apply(result, classStats);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Sums up the number of documentable and documented elements of each kind
+     * for the classes which meet a given condition.
+     *
+     * @param filter the condition to select the classes to sum up
+     * @return the coverage totals of the selected classes
+     */
+    public CoverageTotals getTotals(final Predicate<? super ClassDocStats> filter) {
+        return fold(filter, new CoverageTotals(), (totals, classStats) -> {
+            totals.add(classStats.getCoverageTotals());
+            return totals;
+        });
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+import com.manoelcampos.javadoc.coverage.Utils;
+
+import java.util.*;
+
+/**
+ * Ranks the worst documented classes, methods and packages,
+ * keeping just the top N elements of each kind.
+ *
+ * <p>Elements are offered to the ranking while classes are analysed.
+ * Each kind of element is kept into a bounded priority queue
+ * whose head is the best documented element in the ranking,
+ * which is replaced when a worse documented element is offered.
+ * This way, ranking n elements takes O(n log N) time and O(N) memory,
+ * without sorting all elements.
+ * Fully documented elements are never ranked.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class CoverageRanking {
+    /**
+     * The criteria to define which elements are the worst documented ones.
+     */
+    public enum Criteria {
+        /**
+         * Elements with more undocumented members are worse.
+         */
+        UNDOCUMENTED {
+            @Override
+            int compare(final long members1, final long documented1, final long members2, final long documented2) {
+                final int result = Long.compare(members1 - documented1, members2 - documented2);
+                return result == 0 ? PERCENT.compare(members1, documented1, members2, documented2) : result;
+            }
+        },
+
+        /**
+         * Elements with lower documented percentage are worse.
+         */
+        PERCENT {
+            @Override
+            int compare(final long members1, final long documented1, final long members2, final long documented2) {
+                final int result = Double.compare(
+                        Utils.computePercentage(documented2, members2),
+                        Utils.computePercentage(documented1, members1));
+                return result == 0 ? Long.compare(members1 - documented1, members2 - documented2) : result;
+            }
+        };
+
+        /**
+         * Compares how badly two elements are documented.
+         *
+         * @return a positive number if the 1st element is worse documented than the 2nd,
+         *         a negative number if it's better documented
+         *         or zero if both are equally documented
+         */
+        abstract int compare(long members1, long documented1, long members2, long documented2);
+    }
+
+    private final int size;
+    private final Criteria criteria;
+    private final PriorityQueue<RankedElement> classes;
+    private final PriorityQueue<RankedElement> methods;
+    private final PriorityQueue<RankedElement> packages;
+
+    /**
+     * Maps the name of each package to an array containing the number of members
+     * and documented members of all its classes.
+     */
+    private final Map<String, long[]> packagesTotals;
+
+    /**
+     * Instantiates a ranking of the worst documented elements.
+     *
+     * @param size the maximum number of elements of each kind to rank (the N of a top-N ranking)
+     * @param criteria the criteria to define which elements are the worst documented ones
+     */
+    public CoverageRanking(final int size, final Criteria criteria) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("The ranking size must be a positive number.");
+        }
+
+        this.size = size;
+        this.criteria = criteria;
+        /*Ties are broken by name, so that the ranking doesn't depend on the order elements are offered.*/
+        final Comparator<RankedElement> bestFirst = ((Comparator<RankedElement>) (e1, e2) -> criteria.compare(
+                e1.getMembersNumber(), e1.getDocumentedMembers(),
+                e2.getMembersNumber(), e2.getDocumentedMembers()))
+                .thenComparing(RankedElement::getName, Comparator.reverseOrder());
+        this.classes = new PriorityQueue<>(size, bestFirst);
+        this.methods = new PriorityQueue<>(size, bestFirst);
+        this.packages = new PriorityQueue<>(size, bestFirst);
+        this.packagesTotals = new HashMap<>();
+    }
+
+    /**
+     * Creates an empty ranking with the same size and criteria of this one.
+     *
+     * @return the new empty ranking
+     */
+    CoverageRanking newEmptyRanking() {
+        return new CoverageRanking(size, criteria);
+    }
+
+    /**
+     * Offers a class and its methods to the ranking,
+     * adding its members to the totals of its package.
+     *
+     * @param classStats the JavaDoc coverage statistics for the class
+     */
+    void addClass(final ClassDocStats classStats) {
+        final long members = classStats.getMembersNumber();
+        final long documented = classStats.getDocumentedMembers();
+        final String className = classStats.getQualifiedName();
+        final String pkg = classStats.getPackageName();
+        if (isRankable(classes, members, documented)) {
+            offer(classes, new RankedElement(classStats.getType(), className, pkg, members, documented));
+        }
+
+        final MethodsTable table = classStats.getMethodsTable();
+        for (int row = 0; row < table.size(); row++) {
+            final long methodMembers = table.getMembersNumber(row);
+            final long methodDocumented = table.getDocumentedMembers(row);
+            if (isRankable(methods, methodMembers, methodDocumented)) {
+                final String type = table.isConstructor(row) ? "Constructor" : "Method";
+                final String methodName = className + '#' + table.getName(row);
+                offer(methods, new RankedElement(type, methodName, pkg, methodMembers, methodDocumented));
+            }
+        }
+
+        final long[] totals = packagesTotals.computeIfAbsent(pkg, name -> new long[2]);
+        totals[0] += members;
+        totals[1] += documented;
+    }
+
+    /**
+     * Offers the packages to the ranking, after all their classes were {@link #addClass(ClassDocStats) added},
+     * considering the package itself and all its classes' members.
+     *
+     * @param packagesDocStats the JavaDoc coverage statistics for the packages
+     */
+    void addPackages(final PackagesDocStats packagesDocStats) {
+        for (final PackageDocStats packageStats : packagesDocStats.getPackagesStats()) {
+            final long[] totals = packagesTotals.getOrDefault(packageStats.getName(), new long[2]);
+            final long members = packageStats.getMembersNumber() + totals[0];
+            final long documented = packageStats.getDocumentedMembers() + totals[1];
+            if (isRankable(packages, members, documented)) {
+                offer(packages, new RankedElement(packageStats.getType(), packageStats.getName(), packageStats.getName(), members, documented));
+            }
+        }
+
+        packagesTotals.clear();
+    }
+
+    /**
+     * Checks if an element may be worse documented than the best element in a ranking,
+     * before creating a {@link RankedElement} for it.
+     * Elements as badly documented as the best one are offered too,
+     * since the tie is broken by name when the element is {@link #offer(PriorityQueue, RankedElement) offered}.
+     *
+     * @param ranking the ranking to check
+     * @param members the number of members of the element
+     * @param documented the number of documented members of the element
+     * @return true if the element must be offered to the ranking, false otherwise
+     */
+    private boolean isRankable(final PriorityQueue<RankedElement> ranking, final long members, final long documented) {
+        if (members == documented) {
+            return false;
+        }
+
+        if (ranking.size() < size) {
+            return true;
+        }
+
+        final RankedElement best = ranking.peek();
+        return criteria.compare(members, documented, best.getMembersNumber(), best.getDocumentedMembers()) >= 0;
+    }
+
+    /**
+     * Adds an element to a ranking, replacing the best element in it when the ranking is full
+     * and the given element is worse documented than such a best one.
+     */
+    private void offer(final PriorityQueue<RankedElement> ranking, final RankedElement element) {
+        if (ranking.size() == size) {
+            if (ranking.comparator().compare(element, ranking.peek()) <= 0) {
+                return;
+            }
+
+            ranking.poll();
+        }
+
+        ranking.add(element);
+    }
+
+    /**
+     * Gets the elements into a ranking, sorted from the worst to the best documented one.
+     */
+    private List<RankedElement> getWorstFirst(final PriorityQueue<RankedElement> ranking) {
+        final List<RankedElement> list = new ArrayList<>(ranking);
+        list.sort(ranking.comparator().reversed());
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Gets the worst documented classes, from the worst to the best documented one.
+     *
+     * @return a List with at most {@link #getSize()} classes
+     */
+    public List<RankedElement> getWorstClasses() {
+        return getWorstFirst(classes);
+    }
+
+    /**
+     * Gets the worst documented methods and constructors, from the worst to the best documented one.
+     *
+     * @return a List with at most {@link #getSize()} methods
+     */
+    public List<RankedElement> getWorstMethods() {
+        return getWorstFirst(methods);
+    }
+
+    /**
+     * Gets the worst documented packages (including their classes' members),
+     * from the worst to the best documented one.
+     *
+     * @return a List with at most {@link #getSize()} packages
+     */
+    public List<RankedElement> getWorstPackages() {
+        return getWorstFirst(packages);
+    }
+
+    /**
+     * Gets the maximum number of elements of each kind to rank.
+     *
+     * @return the ranking size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public Criteria getCriteria() {
+        return criteria;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+/**
+ * Accumulates the number of documentable and documented elements of each {@link ElementKind}.
+ * The totals are accumulated into primitive arrays while elements are analysed,
+ * so that any {@link ScoringModel} can be evaluated without analysing elements again.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class CoverageTotals {
+    private static final ElementKind[] KINDS = ElementKind.values();
+
+    private final long[] members = new long[KINDS.length];
+    private final long[] documentedMembers = new long[KINDS.length];
+    private final long[] poorlyDocumentedMembers = new long[KINDS.length];
+
+    /**
+     * Adds some elements of a given kind to the totals.
+     *
+     * @param kind the kind of the elements
+     * @param membersNumber the number of documentable elements
+     * @param documented the number of documented elements
+     */
+    void add(final ElementKind kind, final long membersNumber, final long documented) {
+        members[kind.ordinal()] += membersNumber;
+        documentedMembers[kind.ordinal()] += documented;
+    }
+
+    /**
+     * Adds a documented element whose description is poor to the totals.
+     *
+     * @param kind the kind of the element
+     * @see CommentQuality#isPoor()
+     */
+    void addPoorlyDocumented(final ElementKind kind) {
+        poorlyDocumentedMembers[kind.ordinal()]++;
+    }
+
+    /**
+     * Adds the totals of other object to this one.
+     *
+     * @param other the totals to add
+     */
+    void add(final CoverageTotals other) {
+        sum(other, 1);
+    }
+
+    /**
+     * Subtracts the totals of other object from this one.
+     *
+     * @param other the totals to subtract
+     */
+    void subtract(final CoverageTotals other) {
+        sum(other, -1);
+    }
+
+    private void sum(final CoverageTotals other, final int signal) {
+        for (int i = 0; i < KINDS.length; i++) {
+            members[i] += signal * other.members[i];
+            documentedMembers[i] += signal * other.documentedMembers[i];
+            poorlyDocumentedMembers[i] += signal * other.poorlyDocumentedMembers[i];
+        }
+    }
+
+    /**
+     * Gets the number of documentable elements of all kinds.
+     *
+     * @return the number of elements
+     */
+    public long getMembersNumber() {
+        long total = 0;
+        for (final long value : members) {
+            total += value;
+        }
+
+        return total;
+    }
+
+    /**
+     * Gets the number of documented elements of all kinds.
+     *
+     * @return the number of documented elements
+     */
+    public long getDocumentedMembers() {
+        long total = 0;
+        for (final long value : documentedMembers) {
+            total += value;
+        }
+
+        return total;
+    }
+
+    /**
+     * Gets the number of documentable elements of a given kind.
+     *
+     * @param kind the kind of the elements
+     * @return the number of elements
+     */
+    public long getMembersNumber(final ElementKind kind) {
+        return members[kind.ordinal()];
+    }
+
+    /**
+     * Gets the number of documented elements of a given kind.
+     *
+     * @param kind the kind of the elements
+     * @return the number of documented elements
+     */
+    public long getDocumentedMembers(final ElementKind kind) {
+        return documentedMembers[kind.ordinal()];
+    }
+
+    /**
+     * Gets the number of documented elements of all kinds whose description is poor.
+     *
+     * @return the number of poorly documented elements
+     * @see CommentQuality#isPoor()
+     */
+    public long getPoorlyDocumentedMembers() {
+        long total = 0;
+        for (final long value : poorlyDocumentedMembers) {
+            total += value;
+        }
+
+        return total;
+    }
+
+    /**
+     * Gets the number of documented elements of a given kind whose description is poor.
+     *
+     * @param kind the kind of the elements
+     * @return the number of poorly documented elements
+     * @see CommentQuality#isPoor()
+     */
+    public long getPoorlyDocumentedMembers(final ElementKind kind) {
+        return poorlyDocumentedMembers[kind.ordinal()];
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+import com.sun.javadoc.*;
+
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Selects which classes and members are included into the JavaDoc coverage statistics.
+ * Elements are filtered before any statistics object is created for them.
+ *
+ * <p>Elements can be filtered by:
+ * <ul>
+ *     <li>package name, using glob patterns such as {@code com.company.*},
+ *     where {@code *} matches any sequence of chars, including dots;</li>
+ *     <li>minimum visibility, such as including only public and protected elements;</li>
+ *     <li>annotations, such as excluding generated classes annotated with {@code @Generated};</li>
+ *     <li>source file path, using glob patterns such as {@code **}{@code /generated/**}.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class ElementFilter {
+    /**
+     * The visibility levels an element can have, from the most to the least visible.
+     */
+    public enum Visibility {
+        PUBLIC, PROTECTED, PACKAGE, PRIVATE;
+
+        private static final Visibility[] VALUES = values();
+
+        /**
+         * Gets the visibility of an element.
+         *
+         * @param doc the element to get its visibility
+         * @return the element visibility
+         */
+        static Visibility of(final ProgramElementDoc doc) {
+            return doc.isPublic() ? PUBLIC : doc.isProtected() ? PROTECTED : doc.isPrivate() ? PRIVATE : PACKAGE;
+        }
+
+        /**
+         * Gets a visibility from its ordinal, without creating a new array of values.
+         *
+         * @param ordinal the ordinal of the visibility
+         * @return the visibility
+         */
+        static Visibility of(final int ordinal) {
+            return VALUES[ordinal];
+        }
+
+        /**
+         * Checks if this visibility is at least as visible as a given one.
+         *
+         * @param minVisibility the minimum visibility
+         * @return true if this visibility is the given one or a more visible one, false otherwise
+         */
+        public boolean isAtLeast(final Visibility minVisibility) {
+            return compareTo(minVisibility) <= 0;
+        }
+    }
+
+    /**
+     * A filter which includes all elements.
+     */
+    public static final ElementFilter ALL = new ElementFilter();
+
+    private final List<Pattern> includedPackages;
+    private final List<Pattern> excludedPackages;
+    private final Visibility minVisibility;
+    private final List<String> excludedAnnotations;
+    private final List<PathMatcher> excludedPaths;
+
+    /**
+     * Instantiates a filter which includes all elements.
+     */
+    private ElementFilter() {
+        this(Collections.emptyList(), Collections.emptyList(), Visibility.PRIVATE, Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Instantiates a filter to select the elements to be included into the JavaDoc coverage statistics.
+     *
+     * @param includedPackages glob patterns for the packages to include, or an empty list to include all packages
+     * @param excludedPackages glob patterns for the packages to exclude
+     * @param minVisibility the minimum visibility of included elements
+     * @param excludedAnnotations the simple or qualified names of annotations
+     *                            which exclude the elements annotated with them
+     * @param excludedPaths glob patterns for the paths of source files to exclude
+     */
+    public ElementFilter(
+        final List<String> includedPackages, final List<String> excludedPackages, final Visibility minVisibility,
+        final List<String> excludedAnnotations, final List<String> excludedPaths)
+    {
+        this.includedPackages = includedPackages.stream().map(ElementFilter::compilePackageGlob).collect(toList());
+        this.excludedPackages = excludedPackages.stream().map(ElementFilter::compilePackageGlob).collect(toList());
+        this.minVisibility = minVisibility;
+        this.excludedAnnotations = excludedAnnotations;
+        this.excludedPaths = excludedPaths.stream().map(glob -> FileSystems.getDefault().getPathMatcher("glob:" + glob)).collect(toList());
+    }
+
+    /**
+     * Compiles a glob pattern for package names into a regex.
+     *
+     * @param glob the glob pattern, where {@code *} matches any sequence of chars and {@code ?} matches any char
+     * @return the compiled regex
+     */
+    private static Pattern compilePackageGlob(final String glob) {
+        final StringBuilder regex = new StringBuilder(glob.length() + 8);
+        for (final char c : glob.trim().toCharArray()) {
+            switch (c) {
+                case '*': regex.append(".*"); break;
+                case '?': regex.append('.'); break;
+                default: regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Keeps just the classes which must be included into the statistics.
+     *
+     * @param classes the classes to filter
+     * @return the included classes (which may be the given array if all classes are included)
+     */
+    ClassDoc[] filterClasses(final ClassDoc[] classes) {
+        if (this == ALL) {
+            return classes;
+        }
+
+        return Arrays.stream(classes).filter(this::isIncluded).toArray(ClassDoc[]::new);
+    }
+
+    /**
+     * Keeps just the members of an included class (such as fields or methods) which must be included into the statistics.
+     *
+     * @param members the members to filter
+     * @param <T> the type of the members
+     * @return the included members (which may be the given array if all members are included)
+     */
+    <T extends ProgramElementDoc> T[] filterMembers(final T[] members) {
+        if (this == ALL) {
+            return members;
+        }
+
+        return Arrays.stream(members)
+                     .filter(this::isIncludedElement)
+                     .toArray(length -> Arrays.copyOf(members, length));
+    }
+
+    /**
+     * Checks if a class must be included into the statistics,
+     * considering its package, source file, visibility and annotations.
+     * A nested class is just included if its enclosing classes are included too.
+     *
+     * @param doc the class to check
+     * @return true if the class must be included, false otherwise
+     */
+    private boolean isIncluded(final ClassDoc doc) {
+        if (!isPackageIncluded(doc.containingPackage().name()) || isPathExcluded(doc.position())) {
+            return false;
+        }
+
+        for (ClassDoc classDoc = doc; classDoc != null; classDoc = classDoc.containingClass()) {
+            if (!isIncludedElement(classDoc)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isPackageIncluded(final String packageName) {
+        return (includedPackages.isEmpty() || matchesAny(includedPackages, packageName)) &&
+               !matchesAny(excludedPackages, packageName);
+    }
+
+    private static boolean matchesAny(final List<Pattern> patterns, final String name) {
+        return patterns.stream().anyMatch(pattern -> pattern.matcher(name).matches());
+    }
+
+    private boolean isPathExcluded(final SourcePosition position) {
+        return position != null &&
+               excludedPaths.stream().anyMatch(matcher -> matcher.matches(position.file().toPath().toAbsolutePath()));
+    }
+
+    /**
+     * Checks if an element must be included into the statistics, considering its visibility and annotations.
+     *
+     * @param doc the element to check
+     * @return true if the element must be included, false otherwise
+     */
+    private boolean isIncludedElement(final ProgramElementDoc doc) {
+        return Visibility.of(doc).isAtLeast(minVisibility) && !hasExcludedAnnotation(doc);
+    }
+
+    private boolean hasExcludedAnnotation(final ProgramElementDoc doc) {
+        if (excludedAnnotations.isEmpty()) {
+            return false;
+        }
+
+        for (final AnnotationDesc annotation : doc.annotations()) {
+            final AnnotationTypeDoc type;
+            try {
+                type = annotation.annotationType();
+            } catch (ClassCastException e) {
+                /*The JavaDoc Tool fails to get the type of annotations which aren't in the classpath.*/
+                continue;
+            }
+
+            if (excludedAnnotations.contains(type.qualifiedName()) || excludedAnnotations.contains(type.name())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+/**
+ * The kinds of elements which can be documented,
+ * used to weight the JavaDoc coverage of each kind.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see ScoringModel
+ * @since 1.3.0
+ */
+public enum ElementKind {
+    PACKAGE, CLASS, METHOD, PARAM, TYPE_PARAM, RETURN, EXCEPTION, FIELD, ENUM_CONSTANT, ANNOTATION_ELEMENT;
+
+    /**
+     * Gets the name of the kind as used in command line parameters, such as "enum_constant".
+     *
+     * @return the kind name in lower case
+     */
+    public String getOptionName() {
+        return name().toLowerCase();
+    }
+}
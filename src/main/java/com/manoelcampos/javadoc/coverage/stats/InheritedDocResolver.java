@@ -0,0 +1,274 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+import com.manoelcampos.javadoc.coverage.Utils;
+import com.sun.javadoc.ClassDoc;
+import com.sun.javadoc.ExecutableMemberDoc;
+import com.sun.javadoc.MethodDoc;
+import com.sun.javadoc.Tag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Resolves the documentation a method actually has, including the parts inherited
+ * from the methods it overrides or implements.
+ *
+ * <p>As the JavaDoc tool does, each part of the documentation (the description, each param,
+ * type param, return value and declared exception) which is missing or is just an {@code {@inheritDoc}}
+ * is inherited from the overridden methods. They are looked up into the directly implemented interfaces,
+ * in the order they are declared, and then into the superclass, recursively.</p>
+ *
+ * <p>The documentation resolved for each method is cached by its signature, so that a method
+ * overridden in many subclasses, possibly across a deep hierarchy, is resolved just once.
+ * Methods declared into classes which aren't being documented (such as the ones from the JDK)
+ * have no JavaDoc available. The classes they belong to are accountable to document them,
+ * so their documentation is assumed to be complete.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+final class InheritedDocResolver {
+    private final Map<String, ResolvedDoc> cache = new HashMap<>();
+
+    /**
+     * Gets the documentation of a method/constructor, including the parts inherited from
+     * the methods it overrides.
+     *
+     * @param doc the element which enables reading the method's JavaDoc documentation
+     * @return the resolved documentation
+     */
+    ResolvedDoc resolve(final ExecutableMemberDoc doc) {
+        if (doc.isMethod() && !doc.isStatic() && !doc.isPrivate()) {
+            return resolve((MethodDoc) doc);
+        }
+
+        return new ResolvedDoc(doc);
+    }
+
+    private ResolvedDoc resolve(final MethodDoc method) {
+        final String key = getSignatureKey(method);
+        final ResolvedDoc cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        /*
+         * The map isn't updated with computeIfAbsent because the resolution
+         * recursively adds the overridden methods to the map.
+         */
+        final ResolvedDoc resolved = method.containingClass().isIncluded() ? new ResolvedDoc(method) : ResolvedDoc.complete(method);
+        if (!resolved.isComplete(method)) {
+            for (final MethodDoc overridden : findOverriddenMethods(method)) {
+                resolved.inherit(method, resolve(overridden));
+            }
+        }
+
+        cache.put(key, resolved);
+        return resolved;
+    }
+
+    /**
+     * Clears the resolved documentation, so that changes in the classes of
+     * the project are taken into account.
+     */
+    void clear() {
+        cache.clear();
+    }
+
+    private static String getSignatureKey(final MethodDoc method) {
+        return method.containingClass().qualifiedName() + '#' + method.name() + method.signature();
+    }
+
+    /**
+     * Finds the nearest method overridden by a given method in each one of its supertypes,
+     * in the order the documentation is inherited.
+     *
+     * @param method the method to find the overridden methods
+     * @return the List of overridden methods (which may be empty)
+     */
+    private static List<MethodDoc> findOverriddenMethods(final MethodDoc method) {
+        final List<MethodDoc> overridden = new ArrayList<>();
+        findOverriddenMethods(method.containingClass(), method, overridden);
+        return overridden;
+    }
+
+    private static void findOverriddenMethods(final ClassDoc type, final MethodDoc method, final List<MethodDoc> overridden) {
+        for (final ClassDoc superType : type.interfaces()) {
+            findOverriddenMethod(superType, method, overridden);
+        }
+
+        if (type.superclass() != null) {
+            findOverriddenMethod(type.superclass(), method, overridden);
+        }
+    }
+
+    private static void findOverriddenMethod(final ClassDoc superType, final MethodDoc method, final List<MethodDoc> overridden) {
+        for (final MethodDoc candidate : superType.methods(false)) {
+            if (candidate.name().equals(method.name()) && method.overrides(candidate)) {
+                if (!overridden.contains(candidate)) {
+                    overridden.add(candidate);
+                }
+
+                return;
+            }
+        }
+
+        findOverriddenMethods(superType, method, overridden);
+    }
+
+    /**
+     * The documented parts of a method/constructor, either written into its own JavaDoc
+     * or inherited from the methods it overrides.
+     * Params and type params are identified by their positions, since an overriding method may rename them.
+     */
+    static final class ResolvedDoc {
+        private boolean description;
+        private CommentQuality quality;
+        private boolean returnValue;
+        private final BitSet params;
+        private final BitSet typeParams;
+        private final Set<String> exceptions;
+
+        /**
+         * Instantiates an object with the parts documented into the JavaDoc of a method/constructor.
+         *
+         * @param doc the element which enables reading the method's JavaDoc documentation
+         */
+        private ResolvedDoc(final ExecutableMemberDoc doc) {
+            this.description = Utils.isElementDocumented(doc.getRawCommentText()) &&
+                               MethodTagsDocStats.isDocumented(doc.commentText(), doc.inlineTags());
+            this.quality = description ? CommentQuality.scan(doc.getRawCommentText(), doc.name()) : CommentQuality.NONE;
+            this.returnValue = Arrays.stream(doc.tags("@return")).anyMatch(tag -> MethodTagsDocStats.isDocumented(tag.text(), tag.inlineTags()));
+            this.params = MethodParamsDocStats.getDocumentedParams(doc);
+            this.typeParams = MethodParamsDocStats.getDocumentedTypeParams(doc);
+            this.exceptions = MethodExceptionsDocStats.getDocumentedDeclaredExceptions(doc);
+        }
+
+        private ResolvedDoc(final boolean description, final boolean returnValue, final BitSet params, final BitSet typeParams, final Set<String> exceptions) {
+            this.description = description;
+            this.quality = CommentQuality.NONE;
+            this.returnValue = returnValue;
+            this.params = params;
+            this.typeParams = typeParams;
+            this.exceptions = exceptions;
+        }
+
+        /**
+         * Creates an object where every part of a method is documented.
+         *
+         * @param method the method
+         * @return the completely documented object
+         */
+        private static ResolvedDoc complete(final MethodDoc method) {
+            final BitSet params = new BitSet();
+            params.set(0, method.parameters().length);
+            final BitSet typeParams = new BitSet();
+            typeParams.set(0, method.typeParameters().length);
+            final Set<String> exceptions = Arrays.stream(method.thrownExceptions()).map(ClassDoc::qualifiedName).collect(toSet());
+            return new ResolvedDoc(true, true, params, typeParams, exceptions);
+        }
+
+        /**
+         * Inherits the parts which are documented into an overridden method and aren't documented into this one.
+         *
+         * @param method the method this object belongs to
+         * @param overridden the documentation of the overridden method
+         */
+        private void inherit(final MethodDoc method, final ResolvedDoc overridden) {
+            if (!description && overridden.description) {
+                description = true;
+                quality = overridden.quality;
+            }
+
+            returnValue |= overridden.returnValue;
+            params.or(overridden.params);
+            typeParams.or(overridden.typeParams);
+            for (final ClassDoc exception : method.thrownExceptions()) {
+                final String name = exception.qualifiedName();
+                if (overridden.exceptions.contains(name)) {
+                    exceptions.add(name);
+                }
+            }
+        }
+
+        /**
+         * Checks if every part of a method is documented, so that there is nothing to be inherited.
+         *
+         * @param method the method this object belongs to
+         * @return true if the method is completely documented, false otherwise
+         */
+        private boolean isComplete(final MethodDoc method) {
+            return description && (returnValue || "void".equals(method.returnType().typeName())) &&
+                   params.cardinality() == method.parameters().length &&
+                   typeParams.cardinality() == method.typeParameters().length &&
+                   exceptions.size() == method.thrownExceptions().length;
+        }
+
+        boolean isDescriptionDocumented() {
+            return description;
+        }
+
+        /**
+         * Gets the quality of the description, which may be inherited from an overridden method.
+         *
+         * @return the description quality
+         */
+        CommentQuality getQuality() {
+            return quality;
+        }
+
+        boolean isReturnDocumented() {
+            return returnValue;
+        }
+
+        /**
+         * Gets the positions of the documented params.
+         *
+         * @return a BitSet where the bit for the position of each documented param is set
+         */
+        BitSet getParams() {
+            return params;
+        }
+
+        /**
+         * Gets the positions of the documented type params.
+         *
+         * @return a BitSet where the bit for the position of each documented type param is set
+         */
+        BitSet getTypeParams() {
+            return typeParams;
+        }
+
+        /**
+         * Gets the qualified names of the declared exceptions which are documented.
+         *
+         * @return the Set of documented exception names
+         */
+        Set<String> getExceptions() {
+            return exceptions;
+        }
+    }
+}
@@ -15,10 +15,15 @@
  */
 package com.manoelcampos.javadoc.coverage.stats;
 
-import com.manoelcampos.javadoc.coverage.Utils;
 import com.sun.javadoc.ClassDoc;
 import com.sun.javadoc.RootDoc;
 
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
 /**
  * Computes JavaDoc coverage statistics for Java files received by the JavaDoc tool.
  *
@@ -31,13 +36,29 @@ import com.sun.javadoc.RootDoc;
  * @since 1.0.0
  */
 public class JavaDocsStats implements DocStats {
+    private PackagesDocStats packagesDocStats;
+    private final ClassesDocStats classesDocStats;
+
     /**
-     * Stores the root of the program structure information.
+     * The ranking of the worst documented elements or null if elements are not ranked.
      */
-    private final RootDoc rootDoc;
+    private CoverageRanking ranking;
 
-    private final PackagesDocStats packagesDocStats;
-    private final ClassesDocStats classesDocStats;
+    /**
+     * The filter to select the elements to be analysed.
+     */
+    private final ElementFilter filter;
+
+    /**
+     * The model to compute the coverage percentage of the entire project.
+     */
+    private ScoringModel scoringModel = ScoringModel.DEFAULT;
+
+    /**
+     * The query API for the current statistics, created when first requested
+     * and discarded when the statistics are updated.
+     */
+    private CoverageQuery query;
 
     /**
      * Instantiates an object to compute JavaDoc coverage statistics for all Java files
@@ -46,30 +67,122 @@ public class JavaDocsStats implements DocStats {
      * @param rootDoc root element which enables reading JavaDoc documentation
      */
     public JavaDocsStats(final RootDoc rootDoc) {
-        this.rootDoc = rootDoc;
-        this.classesDocStats = new ClassesDocStats(rootDoc.classes());
-        this.packagesDocStats = computePackagesDocsStats();
+        this(rootDoc, null, ElementFilter.ALL, null);
     }
 
     /**
-     * Computes JavaDoc coverage statistics for detected packages.
+     * Instantiates an object to compute JavaDoc coverage statistics for the elements
+     * received by the JavaDoc tool which are selected by a given filter,
+     * ranking the worst documented elements while they are analysed.
      *
+     * @param rootDoc root element which enables reading JavaDoc documentation
+     * @param ranking an empty ranking to include the worst documented elements or null to not rank elements
+     * @param filter the filter to select the elements to be analysed
+     * @param listener the listener to be notified about each undocumented element
+     *                 found while the project is analysed, or null if not required
+     */
+    public JavaDocsStats(
+        final RootDoc rootDoc, final CoverageRanking ranking,
+        final ElementFilter filter, final UndocumentedElementListener listener)
+    {
+        this.ranking = ranking;
+        this.filter = filter;
+        final ClassDoc[] classes = filter.filterClasses(rootDoc.classes());
+        this.classesDocStats = new ClassesDocStats(classes, ranking, filter, listener);
+        this.packagesDocStats = computePackagesDocsStats(classes);
+        if (ranking != null) {
+            ranking.addPackages(packagesDocStats);
+        }
+    }
+
+    /**
+     * Computes JavaDoc coverage statistics for the packages of a given list of classes.
+     *
+     * @param classes the classes to compute their packages' statistics
      * @return packages' JavaDoc coverage statistics
      */
-    private PackagesDocStats computePackagesDocsStats() {
+    private PackagesDocStats computePackagesDocsStats(final ClassDoc[] classes) {
         final PackagesDocStats stats = new PackagesDocStats();
-        for (final ClassDoc doc : rootDoc.classes()) {
+        for (final ClassDoc doc : classes) {
             stats.addPackageDoc(doc.containingPackage());
         }
 
         return stats;
     }
 
+    /**
+     * Updates the JavaDoc coverage statistics after some Java files have changed.
+     * The statistics of the classes declared into the changed files are replaced
+     * by the statistics of the given classes.
+     * The packages of the changed classes are analysed again, while
+     * packages which don't have any class anymore are removed.
+     * The method is synchronized with {@link #query()}, so that a query API is never
+     * built from statistics which are being updated.
+     *
+     * @param changedFiles the Java files which were created, modified or deleted
+     * @param changedClasses elements which enable reading the JavaDoc documentation
+     *                       of the classes currently declared into the changed files
+     */
+    public synchronized void update(final Collection<Path> changedFiles, final ClassDoc[] changedClasses) {
+        final ClassDoc[] classes = filter.filterClasses(changedClasses);
+        classesDocStats.update(changedFiles, classes);
+        query = null;
+
+        final PackagesDocStats previousPackagesDocStats = packagesDocStats;
+        this.packagesDocStats = computePackagesDocsStats(classes);
+        for (final ClassDocStats classStats : classesDocStats.getClassesList()) {
+            if (packagesDocStats.getPackageStats(classStats.getPackageName()) == null) {
+                packagesDocStats.addPackageStats(previousPackagesDocStats.getPackageStats(classStats.getPackageName()));
+            }
+        }
+
+        updateRanking();
+    }
+
+    /**
+     * Ranks all elements again after some classes have changed,
+     * since an element cannot be removed from the ranking.
+     */
+    private void updateRanking() {
+        if (ranking == null) {
+            return;
+        }
+
+        ranking = ranking.newEmptyRanking();
+        classesDocStats.getClassesList().forEach(ranking::addClass);
+        ranking.addPackages(packagesDocStats);
+    }
+
+    /**
+     * Gets a read-only query API over the current statistics,
+     * which indexes packages and classes by name.
+     * The same object is returned until the statistics are updated.
+     * The method is synchronized, since exporters running on different threads may request the query API.
+     *
+     * @return the query API
+     */
+    public synchronized CoverageQuery query() {
+        if (query == null) {
+            query = new CoverageQuery(this);
+        }
+
+        return query;
+    }
+
+    /**
+     * Gets the ranking of the worst documented elements.
+     *
+     * @return the ranking or null if elements are not being ranked
+     */
+    public CoverageRanking getRanking() {
+        return ranking;
+    }
+
     /**
      * Gets the object containing JavaDoc coverage statistics for detected packages.
      *
      * @return packages' JavaDoc coverage statistics
-     * @see #computePackagesDocsStats()
+     * @see #computePackagesDocsStats(ClassDoc[])
      */
     public PackagesDocStats getPackagesDocStats() {
         return packagesDocStats;
@@ -92,9 +205,65 @@ public class JavaDocsStats implements DocStats {
         return packagesDocStats.getDocumentedMembers() + classesDocStats.getDocumentedMembers();
     }
 
+    /**
+     * {@inheritDoc}
+     * The percentage is computed by the {@link #getScoringModel() scoring model}.
+     *
+     * @return {@inheritDoc}
+     */
     @Override
     public double getDocumentedMembersPercent() {
-        return Utils.mean(packagesDocStats.getDocumentedMembersPercent(), classesDocStats.getDocumentedMembersPercent());
+        return scoringModel.score(this);
+    }
+
+    public ScoringModel getScoringModel() {
+        return scoringModel;
+    }
+
+    /**
+     * Sets the model to compute the coverage percentage of the entire project.
+     * Since the model is evaluated from the totals accumulated during analysis,
+     * it can be changed without analysing the project again.
+     *
+     * @param scoringModel the scoring model to set
+     */
+    public void setScoringModel(final ScoringModel scoringModel) {
+        this.scoringModel = Objects.requireNonNull(scoringModel);
+    }
+
+    /**
+     * Gets the number of documentable and documented elements of each kind
+     * for the entire project.
+     *
+     * @return the project's coverage totals
+     */
+    public CoverageTotals getCoverageTotals() {
+        final CoverageTotals totals = new CoverageTotals();
+        totals.add(classesDocStats.getCoverageTotals());
+        totals.add(ElementKind.PACKAGE, packagesDocStats.getMembersNumber(), packagesDocStats.getDocumentedMembers());
+        return totals;
+    }
+
+    /**
+     * Gets the number of documentable and documented elements of each kind for each package,
+     * including the package itself and all its classes.
+     *
+     * @return a Map where each key is a package name and each value is the package's coverage totals,
+     *         sorted by package name
+     */
+    public Map<String, CoverageTotals> getPackagesCoverageTotals() {
+        final Map<String, CoverageTotals> packagesTotals = new TreeMap<>();
+        for (final PackageDocStats packageStats : packagesDocStats.getPackagesStats()) {
+            final CoverageTotals totals = new CoverageTotals();
+            totals.add(ElementKind.PACKAGE, packageStats.getMembersNumber(), packageStats.getDocumentedMembers());
+            packagesTotals.put(packageStats.getName(), totals);
+        }
+
+        for (final ClassDocStats classStats : classesDocStats.getClassesList()) {
+            packagesTotals.get(classStats.getPackageName()).add(classStats.getCoverageTotals());
+        }
+
+        return packagesTotals;
     }
 
     @Override
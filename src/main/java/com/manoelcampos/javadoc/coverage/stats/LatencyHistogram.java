@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A histogram of elapsed times with fixed buckets, such as the time to analyse each class.
+ * The counts are stored into a primitive array, so that recording a time doesn't allocate objects.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class LatencyHistogram {
+    /**
+     * The upper bounds of the buckets in seconds, excluding the last bucket,
+     * which has no upper bound.
+     */
+    private static final double[] UPPER_BOUNDS = {0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 1};
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The number of times recorded into each bucket, where the last one is for times above all upper bounds.
+     */
+    private final long[] counts = new long[UPPER_BOUNDS.length + 1];
+    private long sumNanos;
+
+    /**
+     * Records an elapsed time into the bucket it belongs to.
+     *
+     * @param nanos the elapsed time in nanoseconds
+     */
+    void record(final long nanos) {
+        final double seconds = nanos / NANOS_PER_SECOND;
+        int bucket = 0;
+        while (bucket < UPPER_BOUNDS.length && seconds > UPPER_BOUNDS[bucket]) {
+            bucket++;
+        }
+
+        counts[bucket]++;
+        sumNanos += nanos;
+    }
+
+    /**
+     * Gets the number of buckets, including the last one, which has no upper bound.
+     *
+     * @return the number of buckets
+     */
+    public int getBucketsNumber() {
+        return counts.length;
+    }
+
+    /**
+     * Gets the upper bound of a bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the upper bound in seconds, or {@link Double#POSITIVE_INFINITY} for the last bucket
+     */
+    public double getUpperBound(final int bucket) {
+        return bucket < UPPER_BOUNDS.length ? UPPER_BOUNDS[bucket] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Gets the number of recorded times which are lower than or equal to the upper bound of a bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the cumulative count up to the bucket
+     */
+    public long getCumulativeCount(final int bucket) {
+        long count = 0;
+        for (int i = 0; i <= bucket; i++) {
+            count += counts[i];
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the number of recorded times.
+     *
+     * @return the number of recorded times
+     */
+    public long getCount() {
+        return getCumulativeCount(counts.length - 1);
+    }
+
+    /**
+     * Gets the sum of all recorded times.
+     *
+     * @return the sum in seconds
+     */
+    public double getSumSeconds() {
+        return sumNanos / NANOS_PER_SECOND;
+    }
+}
@@ -15,131 +15,100 @@
  */
 package com.manoelcampos.javadoc.coverage.stats;
 
-import com.manoelcampos.javadoc.coverage.Utils;
-import com.sun.javadoc.ExecutableMemberDoc;
-import com.sun.javadoc.MethodDoc;
-import com.sun.javadoc.Tag;
-
-import java.util.Arrays;
-
 /**
  * Computes JavaDoc coverage statistics for a method/constructor
  * and its members, namely parameters and thrown exceptions.
  *
+ * <p>The statistics are stored into a {@link MethodsTable} row,
+ * so that objects of this class are just views to such a row, which are created on demand.</p>
+ *
  * @author Manoel Campos da Silva Filho
  * @since 1.0.0
  */
 public class MethodDocStats extends MembersDocStats {
-    /**
-     * This value is added to the number of elements in order to count the method itself as an element
-     * which can be documented.
-     *
-     * @see #getMembersNumber()
-     * @see #getDocumentedMembersPercent()
-     */
-    private static final int METHOD_DOC = 1;
-
-    private final ExecutableMemberDoc doc;
-    private final MethodParamsDocStats paramsStats;
-    private final MethodExceptionsDocStats thrownExceptionsStats;
+    private final MethodsTable table;
+    private final int row;
 
     /**
-     * Instantiates an object to compute JavaDoc coverage statistics for a method/constructor.
+     * Instantiates an object to access JavaDoc coverage statistics for a method/constructor.
      *
-     * @param doc the element which enables reading the method's JavaDoc documentation
+     * @param table the table storing the JavaDoc coverage statistics for the method/constructor
+     * @param row the row of the method/constructor into the table
      */
-    MethodDocStats(final ExecutableMemberDoc doc) {
-        this.doc = doc;
-        this.paramsStats = new MethodParamsDocStats(doc);
-        this.thrownExceptionsStats = new MethodExceptionsDocStats(doc);
+    MethodDocStats(final MethodsTable table, final int row) {
+        this.table = table;
+        this.row = row;
         this.enablePrintIfNoMembers();
     }
 
     public String getMethodName() {
-        return doc.name();
+        return table.getName(row);
+    }
+
+    /**
+     * Gets the flat signature of the method/constructor, containing the simple names of its parameter types,
+     * such as "(int, String)", which distinguishes overloaded methods.
+     *
+     * @return the flat signature
+     */
+    public String getSignature() {
+        return table.getSignature(row);
     }
 
     @Override
     public String getType() {
-        return doc.isConstructor() ? "Constructor" : "Method";
+        return table.isConstructor(row) ? "Constructor" : "Method";
     }
 
     /**
-     * Gets the JavaDoc coverage statistics for the method/constructor's parameters.
+     * Gets the quality of the method/constructor's description,
+     * which may be inherited from the method it overrides.
      *
-     * @return
+     * @return the description quality
      */
-    public MethodParamsDocStats getParamsStats() {
-        return paramsStats;
+    public CommentQuality getQuality() {
+        return table.getQuality(row);
     }
 
     /**
-     * Gets the JavaDoc coverage statistics for the exceptions thrown by the method/constructor.
+     * Gets the JavaDoc coverage statistics for the method/constructor's parameters.
      *
      * @return
      */
-    public MethodExceptionsDocStats getThrownExceptionsStats() {
-        return thrownExceptionsStats;
-    }
-
-    @Override
-    public long getDocumentedMembers() {
-        final int returnCount = (!isVoidMethodOrConstructor() && isReturnDocumented()) ? 1 : 0;
-        final long documentedMembers = Utils.boolToInt(isDocumented()) +
-                paramsStats.getDocumentedMembers() +
-                thrownExceptionsStats.getDocumentedMembers() +
-                returnCount;
-
-        /* If an overridden method isn't documented at all, it doesn't matter because
-         * its documentation is optional. The superclass is accountable to document
-         * the method. This way, the method is counted as completely documented.
-         */
-        if (isOverridden() && documentedMembers == 0) {
-            return getMembersNumber();
-        }
-
-        return documentedMembers;
-    }
-
-    private boolean isReturnDocumented() {
-        return Arrays.stream(doc.tags()).filter(t -> t.name().equals("@return")).map(Tag::text).anyMatch(Utils::isNotStringEmpty);
-    }
-
-    private boolean isOverridden() {
-        return doc.isMethod() && ((MethodDoc) doc).overriddenMethod() != null;
+    public MethodParamsDocStats getParamsStats() {
+        return new MethodParamsDocStats(table.getParams(row), table.getDocumentedParams(row));
     }
 
-    @Override
-    public double getDocumentedMembersPercent() {
-        return Utils.computePercentage(getDocumentedMembers(), getMembersNumber());
+    /**
+     * Gets the JavaDoc coverage statistics for the type parameters of a generic method/constructor.
+     *
+     * @return the type params' JavaDoc coverage statistics
+     */
+    public MethodTypeParamsDocStats getTypeParamsStats() {
+        return new MethodTypeParamsDocStats(table.getTypeParams(row), table.getDocumentedTypeParams(row));
     }
 
     /**
-     * Checks if the method is void or is a constructor.
-     * Either ways, it doesn't have a return value to be documented.
+     * Gets the JavaDoc coverage statistics for the exceptions thrown by the method/constructor.
      *
-     * @return true if the method is void or is a constructor, false otherwise
+     * @return
      */
-    private boolean isVoidMethodOrConstructor() {
-        return isVoidMethod() || doc.isConstructor();
+    public MethodExceptionsDocStats getThrownExceptionsStats() {
+        return new MethodExceptionsDocStats(table.getExceptions(row), table.getDocumentedExceptions(row));
     }
 
-    private boolean isVoidMethod() {
-        return doc.isMethod() && ((MethodDoc) doc).returnType() == null;
+    @Override
+    public long getDocumentedMembers() {
+        return table.getDocumentedMembers(row);
     }
 
     @Override
     public long getMembersNumber() {
-        final int returnCount = isVoidMethodOrConstructor() ? 0 : 1;
-
-        return METHOD_DOC +
-                paramsStats.getMembersNumber() +
-                thrownExceptionsStats.getMembersNumber() +
-                returnCount;
+        return table.getMembersNumber(row);
     }
 
     @Override
     public boolean isDocumented() {
-        return Utils.isElementDocumented(doc.getRawCommentText());
+        return table.isDocumented(row);
     }
 }
@@ -18,12 +18,17 @@ package com.manoelcampos.javadoc.coverage.stats;
 import com.sun.javadoc.ClassDoc;
 import com.sun.javadoc.ExecutableMemberDoc;
 import com.sun.javadoc.Tag;
+import com.sun.javadoc.ThrowsTag;
 
 import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toSet;
+
 /**
  * Computes JavaDoc coverage statistics for the exceptions thrown by a specific method.
  *
@@ -31,15 +36,24 @@ import java.util.stream.Stream;
  * @since 1.0.0
  */
 public class MethodExceptionsDocStats extends MethodTagsDocStats {
+    /**
+     * A pattern to get the exception class from the text of a {@code @throws} tag.
+     * It's compiled just once, since it's used to compare every declared exception with every tag.
+     */
+    private static final Pattern EXCEPTION_CLASS_PATTERN = Pattern.compile("\\w*");
+
+    private static final String TAG_NAME = "@throws";
 
     /**
-     * Instantiates an object to compute JavaDoc coverage statistics for the exceptions thrown
+     * Instantiates an object to access JavaDoc coverage statistics for the exceptions thrown
      * by a method/constructor.
      *
-     * @param doc an object which enables reading the JavaDoc documentation for the method the exceptions belong to
+     * @param membersNumber the number of exceptions of the method
+     * @param documentedMembers the number of documented exceptions
+     * @see #countExceptions(ExecutableMemberDoc)
      */
-    MethodExceptionsDocStats(final ExecutableMemberDoc doc) {
-        super(doc);
+    MethodExceptionsDocStats(final long membersNumber, final long documentedMembers) {
+        super(membersNumber, documentedMembers);
     }
 
     @Override
@@ -48,7 +62,7 @@ public class MethodExceptionsDocStats extends MethodTagsDocStats {
     }
 
     /**
-     * Gets the total number of exceptions in the method for which the JavaDoc
+     * Gets the total number of exceptions in a method for which the JavaDoc
      * coverage statistics is being computed.
      *
      * <p>
@@ -58,13 +72,28 @@ public class MethodExceptionsDocStats extends MethodTagsDocStats {
      * Due to such conditions, the number of existing exceptions will be those: <br>
      * <b>declared but not documented</b> + <b>documented but not declared</b> + <b>documented and declared</b>.
      * </p>
+     * @param doc an object which enables reading the JavaDoc documentation for the method the exceptions belong to
      * @return the total number of exceptions
      */
-    @Override
-    public long getMembersNumber() {
-        return getDeclaredButNotDocumentedExceptionsNumber() +
-               getDocumentedButNotDeclaredExceptionsNumber() +
-               getDeclaredAndDocumentedExceptionsNumber();
+    static int countExceptions(final ExecutableMemberDoc doc) {
+        return (int)(getDeclaredButNotDocumentedExceptionsNumber(doc) +
+                     getDocumentedButNotDeclaredExceptionsNumber(doc) +
+                     getDeclaredAndDocumentedExceptionsNumber(doc));
+    }
+
+    /**
+     * Gets the number of documented exceptions in a method.
+     * An exception documented by multiple {@code @throws} tags is counted just once,
+     * so that there are never more documented than existing exceptions.
+     *
+     * @param doc an object which enables reading the JavaDoc documentation for the method the exceptions belong to
+     * @param documentedDeclaredExceptions the qualified names of the declared exceptions which are documented,
+     *                                     either by the method or by the method it overrides
+     * @return the number of documented exceptions
+     * @see InheritedDocResolver.ResolvedDoc#getExceptions()
+     */
+    static int countDocumentedExceptions(final ExecutableMemberDoc doc, final Set<String> documentedDeclaredExceptions) {
+        return documentedDeclaredExceptions.size() + (int) getDocumentedButNotDeclaredExceptionsNumber(doc);
     }
 
     /**
@@ -74,14 +103,17 @@ public class MethodExceptionsDocStats extends MethodTagsDocStats {
      * <p>Unchecked exceptions can be in this situation, since they are not required to be declared.
      * If a checked exception is documented but not declared, usually the IDEs report an issue
      * that the developer should fix.
+     * An exception documented by multiple {@code @throws} tags is counted just once.
      * </p>
      *
-     * @return
+     * @return the number of distinct exceptions documented but not declared
      */
-    private long getDocumentedButNotDeclaredExceptionsNumber() {
+    private static long getDocumentedButNotDeclaredExceptionsNumber(final ExecutableMemberDoc doc) {
         return
-            getDocumentedTagStream()
-                .filter(tag -> getDeclaredExceptionsStream().noneMatch(ex -> isExceptionEqualsToJavaDocTag(ex, tag)))
+            getDocumentedTagStream(doc, TAG_NAME)
+                .filter(tag -> getDeclaredExceptionsStream(doc).noneMatch(ex -> isExceptionEqualsToJavaDocTag(ex, tag)))
+                .map(tag -> tag instanceof ThrowsTag ? ((ThrowsTag) tag).exceptionName() : getExceptionClassFromTag(tag))
+                .distinct()
                 .count();
     }
 
@@ -89,9 +121,9 @@ public class MethodExceptionsDocStats extends MethodTagsDocStats {
      * Gets the number of exceptions which are declared but not documented in the JavaDoc.
      * @return
      */
-    private long getDeclaredButNotDocumentedExceptionsNumber() {
-        return getDeclaredExceptionsStream()
-                .filter(ex -> getDocumentedTagStream().noneMatch(tag -> isExceptionEqualsToJavaDocTag(ex, tag)))
+    private static long getDeclaredButNotDocumentedExceptionsNumber(final ExecutableMemberDoc doc) {
+        return getDeclaredExceptionsStream(doc)
+                .filter(ex -> getDocumentedTagStream(doc, TAG_NAME).noneMatch(tag -> isExceptionEqualsToJavaDocTag(ex, tag)))
                 .count();
     }
 
@@ -99,19 +131,51 @@ public class MethodExceptionsDocStats extends MethodTagsDocStats {
      * Gets the number of exceptions which are both declared and documented in the JavaDoc.
      * @return
      */
-    private long getDeclaredAndDocumentedExceptionsNumber() {
-        return getDeclaredExceptionsStream()
-                .filter(ex -> getDocumentedTagStream().anyMatch(tag -> isExceptionEqualsToJavaDocTag(ex, tag)))
+    private static long getDeclaredAndDocumentedExceptionsNumber(final ExecutableMemberDoc doc) {
+        return getDeclaredExceptionsStream(doc)
+                .filter(ex -> getDocumentedTagStream(doc, TAG_NAME).anyMatch(tag -> isExceptionEqualsToJavaDocTag(ex, tag)))
                 .count();
     }
 
+    /**
+     * Gets the qualified names of the exceptions declared by a method/constructor
+     * which have a documented {@code @throws} tag.
+     *
+     * @param doc an object which enables reading the JavaDoc documentation for the method the exceptions belong to
+     * @return the Set of documented exception names
+     */
+    static Set<String> getDocumentedDeclaredExceptions(final ExecutableMemberDoc doc) {
+        return getDeclaredExceptionsStream(doc)
+                .filter(ex -> getDocumentedTagStream(doc, TAG_NAME).anyMatch(tag -> isExceptionEqualsToJavaDocTag(ex, tag)))
+                .map(ClassDoc::qualifiedName)
+                .collect(toSet());
+    }
+
+    /**
+     * Performs an action for the name of each exception declared by a method/constructor
+     * which isn't documented.
+     *
+     * @param doc an object which enables reading the JavaDoc documentation for the method the exceptions belong to
+     * @param documentedExceptions the qualified names of the declared exceptions which are documented,
+     *                             either by the method or by the method it overrides
+     * @param action the action to perform for each undocumented exception name
+     * @see InheritedDocResolver.ResolvedDoc#getExceptions()
+     */
+    static void forEachUndocumentedException(
+        final ExecutableMemberDoc doc, final Set<String> documentedExceptions, final Consumer<String> action)
+    {
+        getDeclaredExceptionsStream(doc)
+                .filter(ex -> !documentedExceptions.contains(ex.qualifiedName()))
+                .forEach(ex -> action.accept(ex.name()));
+    }
+
     /**
      * Gets a Stream of thrown exceptions declared in the method's signature.
      *
      * @return
      */
-    private Stream<ClassDoc> getDeclaredExceptionsStream() {
-        return Arrays.stream(getDoc().thrownExceptions());
+    private static Stream<ClassDoc> getDeclaredExceptionsStream(final ExecutableMemberDoc doc) {
+        return Arrays.stream(doc.thrownExceptions());
     }
 
     /**
@@ -122,7 +186,7 @@ public class MethodExceptionsDocStats extends MethodTagsDocStats {
      * @param tag the JavaDoc @throws tag to check
      * @return true if the exception matches with the JavaDoc @throws tag
      */
-    private boolean isExceptionEqualsToJavaDocTag(final ClassDoc exception, final Tag tag) {
+    private static boolean isExceptionEqualsToJavaDocTag(final ClassDoc exception, final Tag tag) {
         /*
         The exception class parsed by the Doclet always starts with the package name,
         even if the package is not included in the throws clause.
@@ -137,13 +201,13 @@ public class MethodExceptionsDocStats extends MethodTagsDocStats {
      * @param tag the JavaDoc tag representing the documentation of a method's exception
      * @return the class of the exception
      */
-    private String getExceptionClassFromTag(final Tag tag) {
-        final Matcher matcher = Pattern.compile("\\w*").matcher(tag.text());
+    private static String getExceptionClassFromTag(final Tag tag) {
+        final Matcher matcher = EXCEPTION_CLASS_PATTERN.matcher(tag.text());
         return matcher.find() ? matcher.group() : tag.text();
     }
 
     @Override
     public String getTagName() {
-        return "@throws";
+        return TAG_NAME;
     }
 }
@@ -16,6 +16,13 @@
 package com.manoelcampos.javadoc.coverage.stats;
 
 import com.sun.javadoc.ExecutableMemberDoc;
+import com.sun.javadoc.ParamTag;
+import com.sun.javadoc.Parameter;
+import com.sun.javadoc.TypeVariable;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Computes JavaDoc coverage statistics for parameters from a specific method.
@@ -24,25 +31,112 @@ import com.sun.javadoc.ExecutableMemberDoc;
  * @since 1.0.0
  */
 public class MethodParamsDocStats extends MethodTagsDocStats {
+    private static final String TAG_NAME = "@param";
 
     /**
-     * Instantiates an object to compute JavaDoc coverage statistics for the params
+     * Instantiates an object to access JavaDoc coverage statistics for the params
      * of a method/constructor.
      *
+     * @param membersNumber the number of params of the method
+     * @param documentedMembers the number of documented params
+     */
+    MethodParamsDocStats(final long membersNumber, final long documentedMembers) {
+        super(membersNumber, documentedMembers);
+    }
+
+    /**
+     * Gets the number of params of a method/constructor.
+     *
      * @param doc an object which enables reading the JavaDoc documentation for the method the params belong to
+     * @return the number of params
      */
-    MethodParamsDocStats(final ExecutableMemberDoc doc) {
-        super(doc);
+    static int countParams(final ExecutableMemberDoc doc) {
+        return doc.parameters().length;
     }
 
-    @Override
-    public long getMembersNumber() {
-        return getDoc().parameters().length;
+    /**
+     * Gets the number of type params of a generic method/constructor.
+     *
+     * @param doc an object which enables reading the JavaDoc documentation for the method the type params belong to
+     * @return the number of type params
+     */
+    static int countTypeParams(final ExecutableMemberDoc doc) {
+        return doc.typeParameters().length;
+    }
+
+    /**
+     * Gets the positions of the documented params of a method/constructor.
+     * Each {@code @param} tag is matched to a param by its name, so that tags for
+     * params which don't exist, duplicated tags and tags for type params aren't counted.
+     *
+     * @param doc an object which enables reading the JavaDoc documentation for the method the params belong to
+     * @return a BitSet where the bit for the position of each documented param is set
+     */
+    static BitSet getDocumentedParams(final ExecutableMemberDoc doc) {
+        final Parameter[] params = doc.parameters();
+        final String[] names = new String[params.length];
+        for (int i = 0; i < params.length; i++) {
+            names[i] = params[i].name();
+        }
+
+        return getDocumented(names, doc.paramTags());
+    }
+
+    /**
+     * Gets the positions of the documented type params of a method/constructor, such as {@code @param <T>}.
+     *
+     * @param doc an object which enables reading the JavaDoc documentation for the method the type params belong to
+     * @return a BitSet where the bit for the position of each documented type param is set
+     * @see MethodTypeParamsDocStats
+     */
+    static BitSet getDocumentedTypeParams(final ExecutableMemberDoc doc) {
+        final TypeVariable[] typeParams = doc.typeParameters();
+        final String[] names = new String[typeParams.length];
+        for (int i = 0; i < typeParams.length; i++) {
+            names[i] = typeParams[i].typeName();
+        }
+
+        return getDocumented(names, doc.typeParamTags());
+    }
+
+    /**
+     * Finds the names which have a documented tag in a single pass over the tags,
+     * looking up each tag name into a hash map of the names which weren't documented yet.
+     * Positions are used instead of names, so that the documentation of the params of
+     * an overridden method can be inherited even if the overriding method renames them.
+     *
+     * @param names the names of the params
+     * @param tags the {@code @param} tags of the method
+     * @return a BitSet where the bit for the position of each documented name is set
+     */
+    private static BitSet getDocumented(final String[] names, final ParamTag[] tags) {
+        final BitSet documented = new BitSet(names.length);
+        if (names.length == 0) {
+            return documented;
+        }
+
+        final Map<String, Integer> pendingNames = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            pendingNames.put(names[i], i);
+        }
+
+        for (final ParamTag tag : tags) {
+            if (!isDocumented(tag.parameterComment(), tag.inlineTags())) {
+                continue;
+            }
+
+            final Integer position = pendingNames.remove(tag.parameterName());
+            if (position != null) {
+                documented.set(position);
+            }
+        }
+
+        return documented;
     }
 
     @Override
     public String getTagName() {
-        return "@param";
+        return TAG_NAME;
     }
 
     @Override
@@ -33,20 +33,27 @@ import java.util.stream.Stream;
  * @since 1.0.0
  */
 public abstract class MethodTagsDocStats extends MembersDocStats {
+    private static final String INHERIT_DOC_TAG = "@inheritDoc";
+
     /**
-     * JavaDoc documentation for the method the tags belong to.
+     * The name of the inline tags representing plain text between other inline tags.
      */
-    private final ExecutableMemberDoc doc;
+    private static final String TEXT_TAG = "Text";
+
+    private final long membersNumber;
+    private final long documentedMembers;
 
     /**
-     * Instantiates an object to compute JavaDoc coverage statistics for the tags
+     * Instantiates an object to access JavaDoc coverage statistics for the tags
      * of a method/constructor.
      *
-     * @param doc an object which enables reading the JavaDoc documentation for the method the tags belong to
+     * @param membersNumber the number of members (such as params) the tags refer to
+     * @param documentedMembers the number of members having a documented tag
      */
-    MethodTagsDocStats(final ExecutableMemberDoc doc) {
+    MethodTagsDocStats(final long membersNumber, final long documentedMembers) {
         super();
-        this.doc = doc;
+        this.membersNumber = membersNumber;
+        this.documentedMembers = documentedMembers;
     }
 
     /**
@@ -58,28 +65,54 @@ public abstract class MethodTagsDocStats extends MembersDocStats {
      */
     public abstract String getTagName();
 
+    @Override
+    public long getMembersNumber() {
+        return membersNumber;
+    }
+
     @Override
     public long getDocumentedMembers() {
-        return getDocumentedTagStream().count();
+        return documentedMembers;
     }
 
     /**
-     * Gets a Stream of all documented method Tags for the method.
+     * Gets a Stream of all documented Tags with a given name for a method.
+     *
+     * @param doc the element which enables reading the method's JavaDoc documentation
+     * @param tagName the name of the tags to get
      * @return the documented Tag Stream
      */
-    protected Stream<Tag> getDocumentedTagStream() {
-        return Arrays.stream(getDoc().tags())
-                .filter(tag -> getTagName().equals(tag.name()))
-                .filter(tag -> Utils.isNotStringEmpty(tag.text()));
+    protected static Stream<Tag> getDocumentedTagStream(final ExecutableMemberDoc doc, final String tagName) {
+        return Arrays.stream(doc.tags())
+                .filter(tag -> tagName.equals(tag.name()))
+                .filter(tag -> isDocumented(tag.text(), tag.inlineTags()));
     }
 
     /**
-     * Gets the element which enables reading the method's JavaDoc documentation.
+     * Checks if the text of a comment or tag documents something by itself.
+     * A text containing just an {@code {@inheritDoc}} tag doesn't, since it's only documented
+     * if the overridden method is.
      *
-     * @return the method's JavaDoc documentation element
+     * @param text the text to check
+     * @param inlineTags the inline tags the text is split into
+     * @return true if the text is not empty and isn't just an {@code {@inheritDoc}}, false otherwise
+     * @see InheritedDocResolver
      */
-    protected ExecutableMemberDoc getDoc() {
-        return doc;
+    static boolean isDocumented(final String text, final Tag[] inlineTags) {
+        return Utils.isNotStringEmpty(text) && !isInheritDocOnly(inlineTags);
+    }
+
+    private static boolean isInheritDocOnly(final Tag[] inlineTags) {
+        boolean inheritDoc = false;
+        for (final Tag tag : inlineTags) {
+            if (INHERIT_DOC_TAG.equals(tag.name())) {
+                inheritDoc = true;
+            } else if (!TEXT_TAG.equals(tag.name()) || Utils.isNotStringEmpty(tag.text())) {
+                return false;
+            }
+        }
+
+        return inheritDoc;
     }
 
     /**
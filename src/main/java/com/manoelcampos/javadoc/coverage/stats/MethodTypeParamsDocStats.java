@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+/**
+ * Computes JavaDoc coverage statistics for the type parameters of a generic method,
+ * which are documented by tags such as {@code @param <T>}.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public class MethodTypeParamsDocStats extends MethodTagsDocStats {
+    private static final String TAG_NAME = "@param";
+
+    /**
+     * Instantiates an object to access JavaDoc coverage statistics for the type params
+     * of a method/constructor.
+     *
+     * @param membersNumber the number of type params of the method
+     * @param documentedMembers the number of documented type params
+     */
+    MethodTypeParamsDocStats(final long membersNumber, final long documentedMembers) {
+        super(membersNumber, documentedMembers);
+    }
+
+    @Override
+    public String getTagName() {
+        return TAG_NAME;
+    }
+
+    @Override
+    public String getType() {
+        return "Type Params";
+    }
+}
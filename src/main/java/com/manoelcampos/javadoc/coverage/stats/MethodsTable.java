@@ -0,0 +1,364 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+import com.manoelcampos.javadoc.coverage.Utils;
+import com.sun.javadoc.ExecutableMemberDoc;
+import com.sun.javadoc.MethodDoc;
+import com.sun.javadoc.Parameter;
+import com.sun.javadoc.SourcePosition;
+import com.sun.javadoc.TypeVariable;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Stores the JavaDoc coverage statistics for the methods and constructors of a class
+ * in a compact way: each row of the table represents a method/constructor
+ * and each column is stored into a primitive array.
+ * The JavaDoc documentation for each method is read just once, when it's added to the table,
+ * so that no reference to such documentation is kept.
+ *
+ * <p>This way, there is no object for each method, its parameters and thrown exceptions.
+ * {@link MethodDocStats} objects are just created on demand, as views to a table row.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see MethodDocStats
+ * @since 1.3.0
+ */
+final class MethodsTable {
+    /**
+     * This value is added to the number of elements in order to count the method itself as an element
+     * which can be documented.
+     *
+     * @see #getMembersNumber(int)
+     */
+    private static final int METHOD_DOC = 1;
+
+    private static final byte CONSTRUCTOR = 1;
+    private static final byte DOCUMENTED = 1 << 1;
+    private static final byte VOID = 1 << 2;
+    private static final byte RETURN_DOCUMENTED = 1 << 3;
+
+    /**
+     * The position of the two bits storing the {@link ElementFilter.Visibility} ordinal into the flags of a row.
+     */
+    private static final int VISIBILITY_SHIFT = 4;
+
+    /**
+     * The table where the names of the methods are stored.
+     */
+    private final StringTable names;
+
+    /**
+     * The listener to notify about undocumented methods and their members, or null if not required.
+     */
+    private final UndocumentedElementListener listener;
+
+    private final InheritedDocResolver inheritedDocs;
+    private final int[] nameIds;
+
+    /**
+     * The ids of the flat signatures of the methods into the {@link #names} table, such as "(int, String)",
+     * which distinguish overloaded methods.
+     */
+    private final int[] signatureIds;
+    private final int[] params;
+    private final int[] documentedParams;
+    private final int[] typeParams;
+    private final int[] documentedTypeParams;
+    private final int[] exceptions;
+    private final int[] documentedExceptions;
+
+    /**
+     * The {@link CommentQuality#encode() encoded} quality of the description of each method.
+     */
+    private final int[] quality;
+    private final byte[] flags;
+    private int size;
+
+    /**
+     * Instantiates a table to store the JavaDoc coverage statistics for methods/constructors.
+     *
+     * @param context the context where the names of the methods will be stored
+     *                and the listener to notify about undocumented elements is got
+     * @param capacity the number of methods/constructors the table can store
+     */
+    MethodsTable(final AnalysisContext context, final int capacity) {
+        this.names = context.getNames();
+        this.listener = context.getListener();
+        this.inheritedDocs = context.getInheritedDocs();
+        this.nameIds = new int[capacity];
+        this.signatureIds = new int[capacity];
+        this.params = new int[capacity];
+        this.documentedParams = new int[capacity];
+        this.typeParams = new int[capacity];
+        this.documentedTypeParams = new int[capacity];
+        this.exceptions = new int[capacity];
+        this.documentedExceptions = new int[capacity];
+        this.quality = new int[capacity];
+        this.flags = new byte[capacity];
+    }
+
+    /**
+     * Computes the JavaDoc coverage statistics for a method/constructor and adds them as a new row.
+     *
+     * @param doc the element which enables reading the method's JavaDoc documentation
+     * @param totals the totals to add the method and its members to
+     */
+    void add(final ExecutableMemberDoc doc, final CoverageTotals totals) {
+        final InheritedDocResolver.ResolvedDoc resolvedDoc = inheritedDocs.resolve(doc);
+        nameIds[size] = names.intern(doc.name());
+        signatureIds[size] = names.intern(doc.flatSignature());
+        params[size] = MethodParamsDocStats.countParams(doc);
+        documentedParams[size] = resolvedDoc.getParams().cardinality();
+        typeParams[size] = MethodParamsDocStats.countTypeParams(doc);
+        documentedTypeParams[size] = resolvedDoc.getTypeParams().cardinality();
+        exceptions[size] = MethodExceptionsDocStats.countExceptions(doc);
+        documentedExceptions[size] = MethodExceptionsDocStats.countDocumentedExceptions(doc, resolvedDoc.getExceptions());
+        quality[size] = resolvedDoc.getQuality().encode();
+        flags[size] = (byte)(
+                flag(doc.isConstructor(), CONSTRUCTOR) |
+                flag(resolvedDoc.isDescriptionDocumented(), DOCUMENTED) |
+                flag(isVoidMethod(doc), VOID) |
+                flag(resolvedDoc.isReturnDocumented(), RETURN_DOCUMENTED) |
+                ElementFilter.Visibility.of(doc).ordinal() << VISIBILITY_SHIFT);
+        addTotals(size, totals);
+        if (listener != null) {
+            notifyUndocumented(doc, resolvedDoc, size);
+        }
+
+        size++;
+    }
+
+    /**
+     * Notifies the {@link #listener} about an undocumented method and its undocumented members.
+     *
+     * @param doc the element which enables reading the method's JavaDoc documentation
+     * @param resolvedDoc the documentation of the method, including the one inherited from overridden methods
+     * @param row the row of the method into the table
+     * @see #forEachUndocumented(ClassDocStats, Consumer)
+     */
+    private void notifyUndocumented(final ExecutableMemberDoc doc, final InheritedDocResolver.ResolvedDoc resolvedDoc, final int row) {
+        final String name = doc.qualifiedName();
+        final SourcePosition position = doc.position();
+        if (!isDocumented(row)) {
+            listener.undocumented(ElementKind.METHOD, name, null, position);
+        }
+
+        final Parameter[] params = doc.parameters();
+        for (int i = resolvedDoc.getParams().nextClearBit(0); i < params.length; i = resolvedDoc.getParams().nextClearBit(i + 1)) {
+            listener.undocumented(ElementKind.PARAM, name, params[i].name(), position);
+        }
+
+        final TypeVariable[] typeParams = doc.typeParameters();
+        for (int i = resolvedDoc.getTypeParams().nextClearBit(0); i < typeParams.length; i = resolvedDoc.getTypeParams().nextClearBit(i + 1)) {
+            listener.undocumented(ElementKind.TYPE_PARAM, name, typeParams[i].typeName(), position);
+        }
+
+        if (!isVoidMethodOrConstructor(row) && !is(row, RETURN_DOCUMENTED)) {
+            listener.undocumented(ElementKind.RETURN, name, null, position);
+        }
+
+        MethodExceptionsDocStats.forEachUndocumentedException(
+            doc, resolvedDoc.getExceptions(), exception -> listener.undocumented(ElementKind.EXCEPTION, name, exception, position));
+    }
+
+    /**
+     * Adds a method/constructor and its members to the totals of each {@link ElementKind}.
+     *
+     * @param row the row of the method into the table
+     * @param totals the totals to add the method and its members to
+     * @see #getDocumentedMembers(int)
+     */
+    private void addTotals(final int row, final CoverageTotals totals) {
+        final int returnCount = isVoidMethodOrConstructor(row) ? 0 : 1;
+        totals.add(ElementKind.METHOD, METHOD_DOC, Utils.boolToInt(isDocumented(row)));
+        if (getQuality(row).isPoor()) {
+            totals.addPoorlyDocumented(ElementKind.METHOD);
+        }
+
+        totals.add(ElementKind.PARAM, params[row], documentedParams[row]);
+        totals.add(ElementKind.TYPE_PARAM, typeParams[row], documentedTypeParams[row]);
+        totals.add(ElementKind.EXCEPTION, exceptions[row], documentedExceptions[row]);
+        totals.add(ElementKind.RETURN, returnCount, returnCount * Utils.boolToInt(is(row, RETURN_DOCUMENTED)));
+    }
+
+    private static int flag(final boolean value, final byte flag) {
+        return value ? flag : 0;
+    }
+
+    private static boolean isVoidMethod(final ExecutableMemberDoc doc) {
+        return doc.isMethod() && ((MethodDoc) doc).returnType() == null;
+    }
+
+    private boolean is(final int row, final byte flag) {
+        return (flags[row] & flag) != 0;
+    }
+
+    /**
+     * Gets the number of methods/constructors stored into the table.
+     *
+     * @return the number of rows
+     */
+    int size() {
+        return size;
+    }
+
+    String getName(final int row) {
+        return names.get(nameIds[row]);
+    }
+
+    String getSignature(final int row) {
+        return names.get(signatureIds[row]);
+    }
+
+    boolean isConstructor(final int row) {
+        return is(row, CONSTRUCTOR);
+    }
+
+    ElementFilter.Visibility getVisibility(final int row) {
+        return ElementFilter.Visibility.of((flags[row] >> VISIBILITY_SHIFT) & 3);
+    }
+
+    boolean isDocumented(final int row) {
+        return is(row, DOCUMENTED);
+    }
+
+    CommentQuality getQuality(final int row) {
+        return CommentQuality.decode(quality[row]);
+    }
+
+    int getParams(final int row) {
+        return params[row];
+    }
+
+    int getDocumentedParams(final int row) {
+        return documentedParams[row];
+    }
+
+    int getTypeParams(final int row) {
+        return typeParams[row];
+    }
+
+    int getDocumentedTypeParams(final int row) {
+        return documentedTypeParams[row];
+    }
+
+    int getExceptions(final int row) {
+        return exceptions[row];
+    }
+
+    int getDocumentedExceptions(final int row) {
+        return documentedExceptions[row];
+    }
+
+    /**
+     * Checks if a method is void or is a constructor.
+     * Either ways, it doesn't have a return value to be documented.
+     *
+     * @param row the row of the method into the table
+     * @return true if the method is void or is a constructor, false otherwise
+     */
+    private boolean isVoidMethodOrConstructor(final int row) {
+        return is(row, VOID) || is(row, CONSTRUCTOR);
+    }
+
+    /**
+     * Gets the number of documentable members of a method/constructor,
+     * including the method itself, its parameters, type parameters, thrown exceptions and return value.
+     *
+     * @param row the row of the method into the table
+     * @return the number of documentable members
+     */
+    long getMembersNumber(final int row) {
+        final int returnCount = isVoidMethodOrConstructor(row) ? 0 : 1;
+        return METHOD_DOC + params[row] + typeParams[row] + exceptions[row] + returnCount;
+    }
+
+    /**
+     * Gets the number of documented members of a method/constructor,
+     * including the method itself, its parameters, type parameters, thrown exceptions and return value.
+     *
+     * @param row the row of the method into the table
+     * @return the number of documented members
+     */
+    long getDocumentedMembers(final int row) {
+        final int returnCount = (!isVoidMethodOrConstructor(row) && is(row, RETURN_DOCUMENTED)) ? 1 : 0;
+        return Utils.boolToInt(isDocumented(row)) + documentedParams[row] + documentedTypeParams[row] +
+               documentedExceptions[row] + returnCount;
+    }
+
+    /**
+     * Performs an action for each undocumented method/constructor and for the undocumented
+     * parameters, return value and exceptions of each one.
+     *
+     * @param owner the class the methods belong to
+     * @param action the action to perform
+     */
+    void forEachUndocumented(final ClassDocStats owner, final Consumer<UndocumentedElement> action) {
+        for (int row = 0; row < size; row++) {
+            final String name = getName(row);
+            final ElementFilter.Visibility visibility = getVisibility(row);
+            if (!isDocumented(row)) {
+                action.accept(new UndocumentedElement(ElementKind.METHOD, owner, name, visibility, 1));
+            }
+
+            if (params[row] > documentedParams[row]) {
+                action.accept(new UndocumentedElement(ElementKind.PARAM, owner, name, visibility, params[row] - documentedParams[row]));
+            }
+
+            if (typeParams[row] > documentedTypeParams[row]) {
+                action.accept(new UndocumentedElement(ElementKind.TYPE_PARAM, owner, name, visibility, typeParams[row] - documentedTypeParams[row]));
+            }
+
+            if (!isVoidMethodOrConstructor(row) && !is(row, RETURN_DOCUMENTED)) {
+                action.accept(new UndocumentedElement(ElementKind.RETURN, owner, name, visibility, 1));
+            }
+
+            if (exceptions[row] > documentedExceptions[row]) {
+                action.accept(new UndocumentedElement(ElementKind.EXCEPTION, owner, name, visibility, exceptions[row] - documentedExceptions[row]));
+            }
+        }
+    }
+
+    /**
+     * Gets a read-only List of {@link MethodDocStats} for a range of rows.
+     * Each {@link MethodDocStats} is created on demand when an element of the List is accessed.
+     *
+     * @param fromRow the first row to include (inclusive)
+     * @param toRow the last row to include (exclusive)
+     * @return the List of {@link MethodDocStats} for the given rows
+     */
+    List<MethodDocStats> asList(final int fromRow, final int toRow) {
+        return new AbstractList<MethodDocStats>() {
+            @Override
+            public MethodDocStats get(final int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+                }
+
+                return new MethodDocStats(MethodsTable.this, fromRow + index);
+            }
+
+            @Override
+            public int size() {
+                return toRow - fromRow;
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+import com.manoelcampos.javadoc.coverage.Utils;
+import com.sun.javadoc.PackageDoc;
+
+/**
+ * Computes JavaDoc statistics for a single package.
+ * The package itself is the only documentable member.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public class PackageDocStats extends MembersDocStats {
+    private final String name;
+    private final boolean documented;
+
+    /**
+     * Instantiates an object to compute JavaDoc coverage statistics for a package.
+     * The statistics are computed when the object is created,
+     * so that no reference to the given JavaDoc documentation is kept.
+     *
+     * @param doc the element which enables reading the package's JavaDoc documentation
+     */
+    PackageDocStats(final PackageDoc doc) {
+        this.name = doc.name();
+        this.documented = Utils.isNotStringEmpty(doc.getRawCommentText());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getType() {
+        return "Package";
+    }
+
+    @Override
+    public long getMembersNumber() {
+        return 1;
+    }
+
+    @Override
+    public long getDocumentedMembers() {
+        return Utils.boolToInt(documented);
+    }
+
+    @Override
+    public boolean isDocumented() {
+        return documented;
+    }
+}
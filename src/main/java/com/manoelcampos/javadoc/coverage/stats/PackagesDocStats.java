@@ -15,12 +15,12 @@
  */
 package com.manoelcampos.javadoc.coverage.stats;
 
-import com.manoelcampos.javadoc.coverage.Utils;
 import com.sun.javadoc.PackageDoc;
 
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Computes JavaDoc statistics for a set of packages.
@@ -29,19 +29,45 @@ import java.util.Set;
  * @since 1.0.0
  */
 public class PackagesDocStats extends MembersDocStats {
-    private final Set<PackageDoc> packagesDoc;
+    /**
+     * Maps the name of each package to its JavaDoc statistics, sorted by name,
+     * so that packages are always reported in the same order.
+     */
+    private final Map<String, PackageDocStats> packagesStats;
 
     public PackagesDocStats(){
-        this.packagesDoc = new HashSet<>();
+        this.packagesStats = new TreeMap<>();
     }
 
     /**
-     * Adds an element to the Set of elements containing packages' JavaDocs.
+     * Computes the JavaDoc statistics for a package and adds them to this object.
+     * If there are already statistics for a package with the same name,
+     * they are replaced by the new ones.
      *
-     * @param doc the package's JavaDoc element to add to the Set
+     * @param doc the package's JavaDoc element to compute statistics
      */
     public void addPackageDoc(final PackageDoc doc){
-        packagesDoc.add(doc);
+        addPackageStats(new PackageDocStats(doc));
+    }
+
+    /**
+     * Adds the JavaDoc statistics for a package,
+     * replacing any existing statistics for a package with the same name.
+     *
+     * @param stats the package's JavaDoc statistics to add
+     */
+    void addPackageStats(final PackageDocStats stats){
+        packagesStats.put(stats.getName(), stats);
+    }
+
+    /**
+     * Gets the JavaDoc statistics for a package.
+     *
+     * @param name the name of the package
+     * @return the package's JavaDoc statistics or null if there is no package with the given name
+     */
+    public PackageDocStats getPackageStats(final String name){
+        return packagesStats.get(name);
     }
 
     @Override
@@ -51,21 +77,21 @@ public class PackagesDocStats extends MembersDocStats {
 
     @Override
     public long getMembersNumber() {
-        return packagesDoc.size();
+        return packagesStats.size();
     }
 
     @Override
     public long getDocumentedMembers() {
-        return packagesDoc.stream().map(PackageDoc::getRawCommentText).filter(Utils::isNotStringEmpty).count();
+        return packagesStats.values().stream().filter(PackageDocStats::isDocumented).count();
     }
 
     /**
-     * Gets a Set of elements containing packages' JavaDocs.
+     * Gets the individual JavaDoc statistics for each package, sorted by the package names.
      *
-     * @return the Set of packages' JavaDocs
+     * @return the packages' JavaDoc statistics
      */
-    public Set<PackageDoc> getPackagesDoc() {
-        return Collections.unmodifiableSet(packagesDoc);
+    public Collection<PackageDocStats> getPackagesStats() {
+        return Collections.unmodifiableCollection(packagesStats.values());
     }
 
     /**
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+/**
+ * An immutable snapshot of the JavaDoc coverage statistics for an element
+ * included into a {@link CoverageRanking}.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+public final class RankedElement implements DocStats {
+    private final String type;
+    private final String name;
+    private final String packageName;
+    private final long membersNumber;
+    private final long documentedMembers;
+
+    RankedElement(final String type, final String name, final String packageName, final long membersNumber, final long documentedMembers) {
+        this.type = type;
+        this.name = name;
+        this.packageName = packageName;
+        this.membersNumber = membersNumber;
+        this.documentedMembers = documentedMembers;
+    }
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the fully qualified name of the element.
+     * For methods, it has the format {@code package.Class#method}.
+     *
+     * @return the name of the element
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    @Override
+    public long getMembersNumber() {
+        return membersNumber;
+    }
+
+    @Override
+    public long getDocumentedMembers() {
+        return documentedMembers;
+    }
+}
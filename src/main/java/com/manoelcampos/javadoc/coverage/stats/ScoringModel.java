@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+import com.manoelcampos.javadoc.coverage.Utils;
+
+import java.util.*;
+
+/**
+ * Computes the JavaDoc coverage percentage of an entire project,
+ * weighting each {@link ElementKind} and averaging the results in a given way.
+ * The model is evaluated from the {@link CoverageTotals} accumulated while elements are analysed.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see JavaDocsStats#getDocumentedMembersPercent()
+ * @since 1.3.0
+ */
+public final class ScoringModel {
+    /**
+     * The ways the coverage of the elements of a project can be averaged.
+     */
+    public enum Averaging {
+        /**
+         * The mean between the percentage of documented packages and the percentage of documented classes,
+         * which ignores members and weights.
+         */
+        LEGACY,
+
+        /**
+         * The weighted number of documented elements divided by the weighted number of documentable elements,
+         * considering all elements of the project.
+         */
+        MICRO,
+
+        /**
+         * The mean of the weighted coverage of each package,
+         * so that each package counts the same regardless of its size.
+         */
+        MACRO
+    }
+
+    private static final ElementKind[] KINDS = ElementKind.values();
+
+    /**
+     * The model used when no weight or averaging is given,
+     * which computes the coverage percentage as in previous releases.
+     */
+    public static final ScoringModel DEFAULT = new ScoringModel(Averaging.LEGACY, Collections.emptyMap());
+
+    private final Averaging averaging;
+    private final double[] weights;
+
+    /**
+     * Instantiates a scoring model.
+     *
+     * @param averaging the way to average the coverage of the elements
+     * @param weights the weight of each kind of element,
+     *                where kinds which aren't in the Map have weight 1
+     */
+    public ScoringModel(final Averaging averaging, final Map<ElementKind, Double> weights) {
+        this.averaging = averaging;
+        this.weights = new double[KINDS.length];
+        for (final ElementKind kind : KINDS) {
+            this.weights[kind.ordinal()] = weights.getOrDefault(kind, 1.0);
+        }
+    }
+
+    /**
+     * Parses a list of weights in the format "kind=weight", separated by commas,
+     * such as "class=2,param=0.5".
+     *
+     * @param value the list of weights to parse
+     * @return a Map with the weight of each given kind
+     * @throws IllegalArgumentException when the value has an unknown kind or an invalid weight
+     */
+    public static Map<ElementKind, Double> parseWeights(final String value) {
+        final Map<ElementKind, Double> weights = new EnumMap<>(ElementKind.class);
+        for (final String pair : value.split(",")) {
+            final String[] parts = pair.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid weight '" + pair + "'. It must be in the format kind=weight.");
+            }
+
+            final ElementKind kind = parseKind(parts[0].trim());
+            final double weight;
+            try {
+                weight = Double.parseDouble(parts[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight '" + parts[1] + "' for " + parts[0] + ".");
+            }
+
+            if (weight < 0) {
+                throw new IllegalArgumentException("The weight for " + parts[0] + " cannot be negative.");
+            }
+
+            weights.put(kind, weight);
+        }
+
+        return weights;
+    }
+
+    private static ElementKind parseKind(final String name) {
+        for (final ElementKind kind : KINDS) {
+            if (kind.getOptionName().equalsIgnoreCase(name)) {
+                return kind;
+            }
+        }
+
+        throw new IllegalArgumentException("Invalid element kind '" + name + "'. Valid ones are: " + kindNames());
+    }
+
+    private static String kindNames() {
+        final StringJoiner joiner = new StringJoiner(", ");
+        for (final ElementKind kind : KINDS) {
+            joiner.add(kind.getOptionName());
+        }
+
+        return joiner.toString();
+    }
+
+    /**
+     * Computes the JavaDoc coverage percentage of an entire project.
+     *
+     * @param stats the JavaDoc coverage statistics of the project
+     * @return the coverage percentage (in scale from 0 to 100)
+     */
+    public double score(final JavaDocsStats stats) {
+        switch (averaging) {
+            case MICRO:
+                return score(stats.getCoverageTotals());
+            case MACRO:
+                return Utils.mean(stats.getPackagesCoverageTotals().values().stream().mapToDouble(this::score).toArray());
+            default:
+                return Utils.mean(
+                        stats.getPackagesDocStats().getDocumentedMembersPercent(),
+                        stats.getClassesDocStats().getDocumentedMembersPercent());
+        }
+    }
+
+    /**
+     * Computes the weighted JavaDoc coverage percentage of a set of elements.
+     *
+     * @param totals the number of documentable and documented elements of each kind
+     * @return the coverage percentage (in scale from 0 to 100)
+     */
+    public double score(final CoverageTotals totals) {
+        double weightedMembers = 0;
+        double weightedDocumented = 0;
+        for (final ElementKind kind : KINDS) {
+            weightedMembers += weights[kind.ordinal()] * totals.getMembersNumber(kind);
+            weightedDocumented += weights[kind.ordinal()] * totals.getDocumentedMembers(kind);
+        }
+
+        return Utils.computePercentage(weightedDocumented, weightedMembers);
+    }
+
+    public Averaging getAveraging() {
+        return averaging;
+    }
+
+    /**
+     * Gets the weight of a kind of element.
+     *
+     * @param kind the kind of element
+     * @return the kind weight
+     */
+    public double getWeight(final ElementKind kind) {
+        return weights[kind.ordinal()];
+    }
+}
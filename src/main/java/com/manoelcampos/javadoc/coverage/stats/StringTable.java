@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A table of Strings shared by JavaDoc coverage statistics objects,
+ * where each distinct String is stored just once and is identified by an int id.
+ * Element names (such as method names) are usually repeated a lot across a project,
+ * so that just their ids are stored into the statistics objects.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since 1.3.0
+ */
+final class StringTable {
+    private final Map<String, Integer> ids;
+    private final List<String> strings;
+
+    StringTable() {
+        this.ids = new HashMap<>();
+        this.strings = new ArrayList<>();
+    }
+
+    /**
+     * Adds a String to the table if it's not there yet.
+     *
+     * @param str the String to add
+     * @return the id of the String into the table
+     */
+    int intern(final String str) {
+        return ids.computeIfAbsent(str, s -> {
+            strings.add(s);
+            return strings.size() - 1;
+        });
+    }
+
+    /**
+     * Gets a String from the table.
+     *
+     * @param id the id of the String to get
+     * @return the String with the given id
+     */
+    String get(final int id) {
+        return strings.get(id);
+    }
+}
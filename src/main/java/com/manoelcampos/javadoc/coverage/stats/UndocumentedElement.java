@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+/**
+ * An element which lacks JavaDoc documentation, such as a class, a field,
+ * or the parameters of a method.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see CoverageQuery#undocumented()
+ * @since 1.3.0
+ */
+public final class UndocumentedElement {
+    private final ElementKind kind;
+    private final ClassDocStats owner;
+    private final String name;
+    private final ElementFilter.Visibility visibility;
+    private final int count;
+
+    /**
+     * Instantiates an undocumented element.
+     *
+     * @param kind the kind of the element
+     * @param owner the class the element belongs to (or the class itself)
+     * @param name the name of the element; for parameters, return values and exceptions,
+     *             the name of the method they belong to
+     * @param visibility the visibility of the element (or of the method it belongs to)
+     * @param count the number of undocumented elements represented by this object,
+     *              such as the number of undocumented parameters of a method
+     */
+    UndocumentedElement(
+        final ElementKind kind, final ClassDocStats owner, final String name,
+        final ElementFilter.Visibility visibility, final int count)
+    {
+        this.kind = kind;
+        this.owner = owner;
+        this.name = name;
+        this.visibility = visibility;
+        this.count = count;
+    }
+
+    public ElementKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the class the element belongs to.
+     *
+     * @return the owner class' JavaDoc coverage statistics (which is the element itself for classes)
+     */
+    public ClassDocStats getOwner() {
+        return owner;
+    }
+
+    /**
+     * Gets the name of the element.
+     *
+     * @return the element name; for parameters, return values and exceptions,
+     *         the name of the method they belong to
+     */
+    public String getName() {
+        return name;
+    }
+
+    public ElementFilter.Visibility getVisibility() {
+        return visibility;
+    }
+
+    /**
+     * Gets the number of undocumented elements represented by this object,
+     * such as the number of undocumented parameters of a method.
+     *
+     * @return the number of undocumented elements
+     */
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        final String qualifiedName = kind == ElementKind.CLASS ? owner.getQualifiedName() : owner.getQualifiedName() + "." + name;
+        return String.format("%s %s (%d)", kind.getOptionName(), qualifiedName, count);
+    }
+}
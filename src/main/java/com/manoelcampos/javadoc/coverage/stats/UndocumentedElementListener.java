@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017-2017 Manoel Campos da Silva Filho
+ *
+ * Licensed under the General Public License Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.gnu.org/licenses/gpl-3.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.manoelcampos.javadoc.coverage.stats;
+
+import com.sun.javadoc.SourcePosition;
+
+/**
+ * A listener notified about each undocumented element while classes are analysed,
+ * including each missing {@code @param}, {@code @return} and {@code @throws} tag,
+ * together with the position of the element into the source code.
+ *
+ * <p>Elements are notified as soon as they are found and aren't stored anywhere,
+ * so that listeners can stream them, no matter how many undocumented elements a project has.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see JavaDocsStats#JavaDocsStats(com.sun.javadoc.RootDoc, CoverageRanking, ElementFilter, UndocumentedElementListener)
+ * @since 1.3.0
+ */
+@FunctionalInterface
+public interface UndocumentedElementListener {
+    /**
+     * Notifies that an element is undocumented.
+     *
+     * @param kind the kind of the undocumented element
+     * @param element the qualified name of the undocumented element, such as "com.company.MyClass.myMethod";
+     *                for parameters, return values and exceptions, the name of the method they belong to
+     * @param item the name of the undocumented parameter, type parameter or exception,
+     *             or null for other kinds of elements
+     * @param position the position of the element into the source code (which, for parameters,
+     *                 return values and exceptions, is the position of the method),
+     *                 or null if the position is unknown
+     */
+    void undocumented(ElementKind kind, String element, String item, SourcePosition position);
+}